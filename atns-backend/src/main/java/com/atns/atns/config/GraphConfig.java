@@ -0,0 +1,21 @@
+package com.atns.atns.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class GraphConfig {
+
+    /**
+     * Pool for whole-graph batch computations, kept apart from the request-time scoring pool so a
+     * nightly job cannot slow down recommendations.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool graphComputePool(
+            @Value("${app.graph.compute.parallelism:#{T(java.lang.Math).max(1, T(java.lang.Runtime).getRuntime().availableProcessors() / 2)}}") int parallelism) {
+        return new ForkJoinPool(Math.max(1, parallelism));
+    }
+}
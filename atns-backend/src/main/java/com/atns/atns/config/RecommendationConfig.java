@@ -0,0 +1,21 @@
+package com.atns.atns.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class RecommendationConfig {
+
+    /**
+     * Dedicated pool for parallel recommendation scoring, so large requests neither compete with
+     * nor block on the common pool used by parallel streams elsewhere.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool recommendationScoringPool(
+            @Value("${app.recommendation.scoring.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int parallelism) {
+        return new ForkJoinPool(Math.max(1, parallelism));
+    }
+}
@@ -0,0 +1,10 @@
+package com.atns.atns.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables @Scheduled maintenance jobs (index expiry sweeps, batch refreshes)
+}
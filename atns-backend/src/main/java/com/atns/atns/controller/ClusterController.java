@@ -0,0 +1,60 @@
+package com.atns.atns.controller;
+
+import com.atns.atns.annotation.AuditLog;
+import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.cluster.ClusterDto;
+import com.atns.atns.service.ClusterService;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/clusters")
+public class ClusterController {
+    private final ClusterService clusterService;
+
+    @GetMapping
+    @AuditLog(action = "FETCH_CLUSTERS")
+    public ResponseEntity<Page<ClusterDto>> getClusters(@RequestParam(defaultValue = "2") int minSize,
+                                                        @PageableDefault Pageable pageable) {
+        log.debug("Fetching clusters with at least {} members", minSize);
+
+        Page<ClusterDto> clusters = clusterService.getClusters(minSize, pageable);
+        log.info("Successfully retrieved {} clusters", clusters.getNumberOfElements());
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(clusters.getTotalElements()))
+                .body(clusters);
+    }
+
+    @GetMapping("/{clusterId}/members")
+    @AuditLog(action = "FETCH_CLUSTER_MEMBERS")
+    public ResponseEntity<Page<ProfileDto>> getClusterMembers(@PathVariable @Min(1) Integer clusterId,
+                                                              @PageableDefault(sort = "id", direction =
+                                                                      Sort.Direction.ASC) Pageable pageable) {
+        log.debug("Fetching members of cluster {}", clusterId);
+
+        Page<ProfileDto> members = clusterService.getClusterMembers(clusterId, pageable);
+        log.info("Successfully retrieved {} members of cluster {}", members.getNumberOfElements(), clusterId);
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(members.getTotalElements()))
+                .body(members);
+    }
+
+    @GetMapping("/profiles/{profileId}")
+    @AuditLog(action = "FETCH_PROFILE_CLUSTER")
+    public ResponseEntity<ClusterDto> getClusterOf(@PathVariable @Min(1) Integer profileId) {
+        log.debug("Fetching cluster of profile {}", profileId);
+
+        return ResponseEntity.ok(clusterService.getClusterOf(profileId));
+    }
+}
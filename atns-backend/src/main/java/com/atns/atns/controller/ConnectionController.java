@@ -1,23 +1,163 @@
 package com.atns.atns.controller;
 
+import com.atns.atns.annotation.AuditLog;
+import com.atns.atns.dto.CursorPage;
 import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.connection.ConnectionDegreeDto;
+import com.atns.atns.dto.connection.ConnectionLevelDto;
+import com.atns.atns.dto.connection.ConnectionPathsDto;
+import com.atns.atns.dto.connection.ConnectionStreamEndDto;
+import com.atns.atns.service.ConnectionService;
+import com.atns.atns.service.ConnectionStream;
+import com.atns.atns.service.MutualConnectionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
 
 @RestController
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/connections")
 public class ConnectionController {
+    private final ConnectionService connectionService;
+    private final MutualConnectionService mutualConnectionService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/{profileId}")
+    @AuditLog(action = "DISCOVER_CONNECTIONS")
+    public ResponseEntity<Map<Integer, Integer>> getConnections(@PathVariable @Min(1) Integer profileId,
+                                                                @RequestParam(defaultValue = "3") int maxDegree) {
+        log.debug("Discovering connections of profile {} up to degree {}", profileId, maxDegree);
+
+        Map<Integer, Integer> connections = connectionService.findConnections(profileId, maxDegree);
+        log.info("Discovered {} connections for profile {}", connections.size(), profileId);
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(connections.size()))
+                .body(connections);
+    }
+
+    /**
+     * NDJSON: one {@link ConnectionLevelDto} line per chunk of a degree level, written as soon as
+     * the level is expanded, then one {@link ConnectionStreamEndDto} line with the continuation.
+     */
+    @GetMapping(value = "/{profileId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @AuditLog(action = "STREAM_CONNECTIONS")
+    public ResponseEntity<StreamingResponseBody> streamConnections(@PathVariable @Min(1) Integer profileId,
+                                                                   @RequestParam(defaultValue = "3") int maxDegree,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "1000") int limit) {
+        log.debug("Streaming connections of profile {} up to degree {}", profileId, maxDegree);
+
+        ConnectionStream stream = connectionService.streamConnections(profileId, maxDegree, cursor, limit);
+        StreamingResponseBody body = out -> {
+            ConnectionStreamEndDto end = stream.emit(level -> writeLine(out, level));
+            writeLine(out, end);
+            log.info("Streamed {} connections for profile {}", end.emitted(), profileId);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/{profileId}/degree/{targetId}")
+    @AuditLog(action = "CONNECTION_DEGREE")
+    public ResponseEntity<ConnectionDegreeDto> getDegree(@PathVariable @Min(1) Integer profileId,
+                                                         @PathVariable @Min(1) Integer targetId,
+                                                         @RequestParam(defaultValue = "6") int maxDegree) {
+        log.debug("Computing connection degree from profile {} to {}", profileId, targetId);
+
+        OptionalInt degree = connectionService.findDegree(profileId, targetId, maxDegree);
+
+        return ResponseEntity.ok(ConnectionDegreeDto.builder()
+                .fromProfileId(profileId)
+                .toProfileId(targetId)
+                .degree(degree.isPresent() ? degree.getAsInt() : null)
+                .connected(degree.isPresent())
+                .build());
+    }
+
+    /**
+     * Degree badges for a page of profiles shown to the viewer; values are 0 to 3, or {@code null}
+     * beyond degree 3.
+     */
+    @PostMapping("/{profileId}/degrees")
+    @AuditLog(action = "CONNECTION_DEGREES")
+    public ResponseEntity<Map<Integer, Integer>> getDegrees(@PathVariable @Min(1) Integer profileId,
+                                                            @RequestBody List<Integer> targetIds) {
+        log.debug("Computing connection degrees from profile {} to {} profiles", profileId, targetIds.size());
+
+        Map<Integer, Integer> degrees = connectionService.findDegrees(profileId, new LinkedHashSet<>(targetIds));
+
+        return ResponseEntity.ok(degrees);
+    }
+
+    @GetMapping("/{profileId}/paths/{targetId}")
+    @AuditLog(action = "CONNECTION_PATHS")
+    public ResponseEntity<ConnectionPathsDto> getPaths(@PathVariable @Min(1) Integer profileId,
+                                                       @PathVariable @Min(1) Integer targetId,
+                                                       @RequestParam(defaultValue = "3") int maxDegree,
+                                                       @RequestParam(defaultValue = "3") int maxPaths) {
+        log.debug("Finding connection paths from profile {} to {}", profileId, targetId);
+
+        ConnectionPathsDto paths = connectionService.findPaths(profileId, targetId, maxDegree, maxPaths);
+        log.info("Found {} paths from profile {} to {}", paths.paths().size(), profileId, targetId);
+
+        return ResponseEntity.ok(paths);
+    }
+
+    @GetMapping("/{profileId}/mutual")
+    @AuditLog(action = "FETCH_MUTUAL_CONNECTIONS")
+    public ResponseEntity<CursorPage<ProfileDto>> getMutualConnections(@PathVariable @Min(1) Integer profileId,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Fetching mutual connections of profile {}", profileId);
+
+        CursorPage<ProfileDto> mutual = mutualConnectionService.findMutualConnections(profileId, cursor, limit);
+        log.info("Retrieved {} of {} mutual connections", mutual.content().size(), mutual.totalElements());
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(mutual.totalElements()))
+                .body(mutual);
+    }
+
+    @GetMapping("/{profileId}/mutual/{otherId}")
+    @AuditLog(action = "FETCH_SHARED_FOLLOWING")
+    public ResponseEntity<CursorPage<ProfileDto>> getSharedFollowing(@PathVariable @Min(1) Integer profileId,
+                                                                     @PathVariable @Min(1) Integer otherId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Fetching profiles followed by both {} and {}", profileId, otherId);
+
+        CursorPage<ProfileDto> shared = mutualConnectionService.findSharedFollowing(profileId, otherId, cursor, limit);
+        log.info("Retrieved {} of {} shared follows", shared.content().size(), shared.totalElements());
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(shared.totalElements()))
+                .body(shared);
+    }
 
-//    @GetMapping("/{profileId}/mutual")
-//    public ResponseEntity<Page<ProfileDto>> getConnections(@Pageable pageable) {
-//
-//    }
+    private void writeLine(OutputStream out, Object line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
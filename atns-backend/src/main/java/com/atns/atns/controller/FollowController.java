@@ -1,7 +1,9 @@
 package com.atns.atns.controller;
 
 import com.atns.atns.annotation.AuditLog;
+import com.atns.atns.dto.CursorPage;
 import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.follow.BulkFollowResultDto;
 import com.atns.atns.enums.ConnectionStatus;
 import com.atns.atns.service.FollowService;
 import jakarta.validation.constraints.Min;
@@ -15,6 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @Slf4j
 @RequiredArgsConstructor
@@ -35,6 +41,18 @@ public class FollowController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk")
+    @AuditLog(action = "BULK_FOLLOW_PROFILES")
+    public ResponseEntity<BulkFollowResultDto> followProfiles(@PathVariable @Min(1) Integer profileId,
+                                                              @RequestBody List<Integer> targetIds) {
+        log.info("Profile {} attempting to follow {} profiles", profileId, targetIds.size());
+
+        BulkFollowResultDto result = followService.followProfiles(profileId, new LinkedHashSet<>(targetIds));
+        log.info("Bulk follow by profile {}: {} inserted, {} skipped", profileId, result.inserted(), result.skipped());
+
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{targetId}")
     @Transactional
     @AuditLog(action = "UNFOLLOW_PROFILE")
@@ -79,6 +97,47 @@ public class FollowController {
                 .body(following);
     }
 
+    @GetMapping("/followers/influential")
+    @Transactional(readOnly = true)
+    @AuditLog(action = "FETCH_FOLLOWERS")
+    public ResponseEntity<Page<ProfileDto>> getInfluentialFollowers(@PathVariable @Min(1) Integer profileId,
+                                                                    Pageable pageable) {
+        log.debug("Fetching followers of profile {} by influence", profileId);
+
+        Page<ProfileDto> followers = followService.getFollowersByInfluence(profileId, pageable);
+        log.info("Successfully retrieved {} followers", followers.getNumberOfElements());
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(followers.getTotalElements()))
+                .body(followers);
+    }
+
+    @GetMapping("/followers/cursor")
+    @AuditLog(action = "FETCH_FOLLOWERS")
+    public ResponseEntity<CursorPage<ProfileDto>> getFollowersAfter(@PathVariable @Min(1) Integer profileId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Fetching followers of profile {} after cursor {}", profileId, cursor);
+
+        CursorPage<ProfileDto> followers = followService.getFollowers(profileId, cursor, limit);
+        log.info("Successfully retrieved {} followers", followers.content().size());
+
+        return ResponseEntity.ok(followers);
+    }
+
+    @GetMapping("/following/cursor")
+    @AuditLog(action = "FETCH_FOLLOWING")
+    public ResponseEntity<CursorPage<ProfileDto>> getFollowingAfter(@PathVariable @Min(1) Integer profileId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Fetching following of profile {} after cursor {}", profileId, cursor);
+
+        CursorPage<ProfileDto> following = followService.getFollowing(profileId, cursor, limit);
+        log.info("Successfully retrieved {} following", following.content().size());
+
+        return ResponseEntity.ok(following);
+    }
+
     @GetMapping("/followers/count")
     @Transactional(readOnly = true)
     @AuditLog(action = "COUNT_FOLLOWERS")
@@ -117,4 +176,17 @@ public class FollowController {
         return ResponseEntity.ok(status);
     }
 
+    @PostMapping("/status")
+    @AuditLog(action = "BATCH_CONNECTION_STATUS")
+    public ResponseEntity<Map<Integer, ConnectionStatus>> getConnectionStatuses(
+            @PathVariable @Min(1) Integer profileId,
+            @RequestBody List<Integer> targetIds) {
+
+        log.debug("Checking connection status between profile {} and {} profiles", profileId, targetIds.size());
+        Map<Integer, ConnectionStatus> statuses =
+                followService.getConnectionStatuses(profileId, new LinkedHashSet<>(targetIds));
+
+        return ResponseEntity.ok(statuses);
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.atns.atns.controller;
+
+import com.atns.atns.annotation.AuditLog;
+import com.atns.atns.dto.graph.GraphFeatureSummaryDto;
+import com.atns.atns.dto.graph.GraphFeaturesDto;
+import com.atns.atns.service.GraphFeatureService;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@RequestMapping("/api/v1/admin/graph")
+public class GraphAnalyticsController {
+    private final GraphFeatureService graphFeatureService;
+
+    @GetMapping("/features/{profileId}")
+    @AuditLog(action = "FETCH_GRAPH_FEATURES")
+    public ResponseEntity<GraphFeaturesDto> getFeatures(@PathVariable @Min(1) Integer profileId) {
+        log.debug("Fetching graph features of profile {}", profileId);
+
+        return ResponseEntity.ok(graphFeatureService.getFeatures(profileId));
+    }
+
+    @GetMapping("/features/summary")
+    @AuditLog(action = "FETCH_GRAPH_FEATURE_SUMMARY")
+    public ResponseEntity<GraphFeatureSummaryDto> getSummary() {
+        log.debug("Fetching graph feature summary");
+
+        return ResponseEntity.ok(graphFeatureService.getSummary());
+    }
+}
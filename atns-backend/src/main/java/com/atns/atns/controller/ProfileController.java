@@ -3,9 +3,11 @@ package com.atns.atns.controller;
 import com.atns.atns.annotation.AuditLog;
 import com.atns.atns.dto.ProfileDto;
 import com.atns.atns.dto.SkillDto;
+import com.atns.atns.dto.follow.FollowCountsDto;
 import com.atns.atns.entity.User;
 import com.atns.atns.exception.ResourceNotFoundException;
 import com.atns.atns.repo.UserRepo;
+import com.atns.atns.service.FollowService;
 import com.atns.atns.service.ProfileService;
 import com.atns.atns.service.impl.ProfileServiceImpl;
 import com.cloudinary.Cloudinary;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +36,7 @@ public class ProfileController {
 
     private final ProfileService profileService;
     private final ProfileServiceImpl profileServiceImpl;
+    private final FollowService followService;
     private final UserRepo userRepo;
     private final Cloudinary cloudinary;
 
@@ -128,6 +132,14 @@ public class ProfileController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/follow-counts")
+    @AuditLog(action = "BATCH_FOLLOW_COUNTS")
+    public ResponseEntity<Map<Integer, FollowCountsDto>> getFollowCounts(@RequestBody List<Integer> profileIds) {
+        log.debug("Fetching follow counts for {} profiles", profileIds.size());
+        Map<Integer, FollowCountsDto> counts = followService.getFollowCounts(new LinkedHashSet<>(profileIds));
+        return ResponseEntity.ok(counts);
+    }
+
     @GetMapping("/explore")
     @Transactional(readOnly = true)
     @AuditLog(action = "EXPLORE_PROFILES")
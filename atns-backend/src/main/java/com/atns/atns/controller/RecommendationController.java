@@ -42,6 +42,17 @@ public class RecommendationController {
                 .body(recommendations);
     }
 
+    @GetMapping("/people-you-may-know/{profileId}")
+    public ResponseEntity<List<RecommendedUserDto>> getPeopleYouMayKnow(
+            @PathVariable Integer profileId,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Fetching people you may know for profileId={}, limit={}", profileId, limit);
+        List<RecommendedUserDto> recommendations = recommendationService.recommendPeopleYouMayKnow(profileId, limit);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(recommendations);
+    }
+
     @GetMapping("/jobs/{profileId}")
     public ResponseEntity<List<RecommendedJobDto>> getRecommendedJobs(
             @PathVariable Integer profileId,
@@ -0,0 +1,21 @@
+package com.atns.atns.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated list. Pass {@code nextCursor} back to get the following page;
+ * it is serialized as {@code null} on the last page rather than left out.
+ *
+ * @param totalElements size of the whole list, or {@code null} for lists that are not counted
+ */
+@Builder
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long totalElements
+) {
+}
@@ -0,0 +1,14 @@
+package com.atns.atns.dto.cluster;
+
+import lombok.Builder;
+
+/**
+ * @param clusterId label shared by the members, the id of the profile the cluster grew from
+ * @param size      number of member profiles
+ */
+@Builder
+public record ClusterDto(
+        Integer clusterId,
+        long size
+) {
+}
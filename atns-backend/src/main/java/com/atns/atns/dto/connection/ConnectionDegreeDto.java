@@ -0,0 +1,15 @@
+package com.atns.atns.dto.connection;
+
+import lombok.Builder;
+
+/**
+ * @param degree length of the shortest follow path, or {@code null} if none was found within the limit
+ */
+@Builder
+public record ConnectionDegreeDto(
+        Integer fromProfileId,
+        Integer toProfileId,
+        Integer degree,
+        boolean connected
+) {
+}
@@ -0,0 +1,16 @@
+package com.atns.atns.dto.connection;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * One line of a streamed connection discovery: profiles first reached at {@code degree}. A large
+ * level is split over several consecutive lines with the same degree.
+ */
+@Builder
+public record ConnectionLevelDto(
+        int degree,
+        List<Integer> profileIds
+) {
+}
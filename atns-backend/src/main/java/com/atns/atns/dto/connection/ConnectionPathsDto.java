@@ -0,0 +1,21 @@
+package com.atns.atns.dto.connection;
+
+import com.atns.atns.dto.ProfileDto;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * @param degree   length of the shortest follow path, or {@code null} if none was found
+ * @param paths    shortest paths from one profile to the other, each listing every profile on it
+ * @param timedOut whether the search ran out of its time budget before finding a path
+ */
+@Builder
+public record ConnectionPathsDto(
+        Integer fromProfileId,
+        Integer toProfileId,
+        Integer degree,
+        List<List<ProfileDto>> paths,
+        boolean timedOut
+) {
+}
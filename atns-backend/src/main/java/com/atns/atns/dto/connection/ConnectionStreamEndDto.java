@@ -0,0 +1,17 @@
+package com.atns.atns.dto.connection;
+
+import lombok.Builder;
+
+/**
+ * Last line of a streamed connection discovery.
+ *
+ * @param emitted    number of profiles sent in this response
+ * @param nextCursor pass back to continue after the last profile sent, or {@code null} when done
+ */
+@Builder
+public record ConnectionStreamEndDto(
+        int emitted,
+        String nextCursor,
+        boolean hasNext
+) {
+}
@@ -0,0 +1,18 @@
+package com.atns.atns.dto.follow;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * @param skipped     requested profiles not followed: already followed, unknown, or the follower itself
+ * @param followedIds profiles newly followed by this request
+ */
+@Builder
+public record BulkFollowResultDto(
+        int requested,
+        int inserted,
+        int skipped,
+        List<Integer> followedIds
+) {
+}
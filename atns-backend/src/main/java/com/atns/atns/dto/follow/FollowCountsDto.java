@@ -0,0 +1,11 @@
+package com.atns.atns.dto.follow;
+
+import lombok.Builder;
+
+@Builder
+public record FollowCountsDto(
+        Integer profileId,
+        long followersCount,
+        long followingCount
+) {
+}
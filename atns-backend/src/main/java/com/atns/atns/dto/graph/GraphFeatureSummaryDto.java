@@ -0,0 +1,23 @@
+package com.atns.atns.dto.graph;
+
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * @param connectedProfiles   profiles with at least one follow
+ * @param triangles           distinct triangles of the undirected follow graph
+ * @param averageClustering   mean clustering coefficient of the connected profiles
+ * @param averageReciprocity  mean reciprocity of the profiles that follow someone
+ * @param graphVersion        follow graph version computed at, or -1 if loaded from storage
+ */
+@Builder
+public record GraphFeatureSummaryDto(
+        int connectedProfiles,
+        long triangles,
+        double averageClustering,
+        double averageReciprocity,
+        long graphVersion,
+        Instant computedAt
+) {
+}
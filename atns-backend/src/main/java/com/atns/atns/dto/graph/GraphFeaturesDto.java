@@ -0,0 +1,23 @@
+package com.atns.atns.dto.graph;
+
+import lombok.Builder;
+
+/**
+ * @param mutualDegree          followed profiles that follow back
+ * @param neighbourCount        distinct profiles followed or following, ignoring direction
+ * @param triangles             connected pairs among those neighbours
+ * @param clusteringCoefficient share of neighbour pairs that are connected
+ * @param reciprocity           share of follows that are followed back
+ */
+@Builder
+public record GraphFeaturesDto(
+        Integer profileId,
+        int inDegree,
+        int outDegree,
+        int mutualDegree,
+        int neighbourCount,
+        int triangles,
+        double clusteringCoefficient,
+        double reciprocity
+) {
+}
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "events", indexes = {@Index(columnList = "profile_id"), @Index(columnList = "active")})
+@Table(name = "events", indexes = {@Index(columnList = "profile_id"), @Index(columnList = "active"),
+        @Index(columnList = "active, start_time")})
 public class Event {
 
     @Id
@@ -14,7 +14,13 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "follows")
+@Table(name = "follows",
+        uniqueConstraints = @UniqueConstraint(name = "uk_follows_follower_followed",
+                columnNames = {"follower_id", "followed_id"}),
+        indexes = {@Index(columnList = "followed_id, follower_id"),
+        @Index(columnList = "created_at"),
+        @Index(columnList = "followed_id, created_at, id"),
+        @Index(columnList = "follower_id, created_at, id")})
 public class Follow {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
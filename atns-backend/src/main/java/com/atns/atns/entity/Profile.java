@@ -21,7 +21,8 @@ import java.util.*;
 @EntityListeners(AuditingEntityListener.class)
 @Table(name = "profiles",indexes = {
         @Index(name = "odx_profile_user", columnList = "user_id"),
-        @Index(name = "idx_profile_name", columnList = "lastName,firstName")
+        @Index(name = "idx_profile_name", columnList = "lastName,firstName"),
+        @Index(name = "idx_profile_cluster", columnList = "cluster_id")
 })
 public class Profile {
 
@@ -95,6 +96,21 @@ public class Profile {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Denormalized follow counts, written only by FollowCounters' batched flush and reconcile
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long followersCount;
+
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long followingCount;
+
+    // PageRank over the follow graph scaled so the average profile scores 1; written only by InfluenceScoreJob
+    @Column(insertable = false, updatable = false, columnDefinition = "DOUBLE PRECISION NOT NULL DEFAULT 0")
+    private double influenceScore;
+
+    // Label-propagation community of the follow graph; written only by ClusterDetectionJob
+    @Column(insertable = false, updatable = false)
+    private Integer clusterId;
+
     @OneToMany(mappedBy = "profile", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Event> events = new ArrayList<>();
 
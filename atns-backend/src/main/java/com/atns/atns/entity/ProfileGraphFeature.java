@@ -0,0 +1,40 @@
+package com.atns.atns.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per profile with at least one follow, written only by {@code GraphFeatureStore}; the
+ * profile id is not a foreign key so the nightly rewrite does not check every row against profiles.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "profile_graph_features")
+public class ProfileGraphFeature {
+
+    @Id
+    private Integer profileId;
+
+    @Column(nullable = false)
+    private int inDegree;
+
+    @Column(nullable = false)
+    private int outDegree;
+
+    @Column(nullable = false)
+    private int mutualDegree;
+
+    @Column(nullable = false)
+    private int neighbourCount;
+
+    @Column(nullable = false)
+    private int triangles;
+
+    @Column(nullable = false, columnDefinition = "REAL")
+    private float clusteringCoefficient;
+
+    @Column(nullable = false, columnDefinition = "REAL")
+    private float reciprocity;
+}
@@ -0,0 +1,36 @@
+package com.atns.atns.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted follow, written in the same transaction as the delete so a follow graph
+ * snapshot can replay unfollows as well as follows. The profile ids are not foreign keys: a
+ * tombstone outlives the profiles it names, and old rows are purged by {@code FollowGraph}.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "unfollows", indexes = @Index(columnList = "deleted_at"))
+public class Unfollow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(nullable = false)
+    private int followerId;
+
+    @Column(nullable = false)
+    private int followedId;
+
+    @CreationTimestamp
+    private LocalDateTime deletedAt;
+}
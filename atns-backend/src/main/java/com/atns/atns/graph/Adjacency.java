@@ -0,0 +1,201 @@
+package com.atns.atns.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One direction of the follow relation in compressed sparse row form: the neighbours of vertex
+ * {@code v} are {@code targets[offsets[v]] .. targets[offsets[v + 1] - 1]}, ascending.
+ *
+ * <p>The CSR arrays are never modified. A vertex whose edges changed since the last compaction
+ * gets an override row, a complete sorted copy of its neighbours that is replaced as a whole on
+ * every change. Readers therefore fetch a vertex's array once and walk it with
+ * {@link #start(int, int[])} and {@link #end(int, int[])}:</p>
+ *
+ * <pre>{@code
+ * int[] targets = adjacency.targets(v);
+ * for (int i = adjacency.start(v, targets), end = adjacency.end(v, targets); i < end; i++) { ... }
+ * }</pre>
+ *
+ * <p>Vertices are profile ids, which are dense identity keys.</p>
+ */
+public final class Adjacency {
+
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final AtomicReferenceArray<int[]> overrides;
+
+    private Adjacency(int[] offsets, int[] targets, AtomicReferenceArray<int[]> overrides) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Builds the CSR form of the edges {@code sources[i] -> destinations[i]}, {@code i < edgeCount}.
+     * Duplicate edges are dropped.
+     */
+    static Adjacency build(int vertexCapacity, int[] sources, int[] destinations, int edgeCount) {
+        int[] offsets = new int[vertexCapacity + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[sources[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCapacity; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, vertexCapacity);
+        int[] targets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            targets[fill[sources[i]]++] = destinations[i];
+        }
+
+        // Sort and deduplicate every row, compacting in place
+        int write = 0;
+        for (int v = 0; v < vertexCapacity; v++) {
+            int from = offsets[v];
+            int to = offsets[v + 1];
+            Arrays.sort(targets, from, to);
+            int rowStart = write;
+            offsets[v] = rowStart;
+            for (int i = from; i < to; i++) {
+                if (write == rowStart || targets[write - 1] != targets[i]) {
+                    targets[write++] = targets[i];
+                }
+            }
+        }
+        offsets[vertexCapacity] = write;
+
+        return new Adjacency(offsets, write == edgeCount ? targets : Arrays.copyOf(targets, write),
+                new AtomicReferenceArray<>(vertexCapacity));
+    }
+
+    /**
+     * Wraps CSR arrays in the layout of {@link #build}, as read back by {@link FollowGraphSnapshotFile}.
+     *
+     * @throws IllegalArgumentException if the arrays are not a valid CSR form
+     */
+    static Adjacency of(int[] offsets, int[] targets) {
+        int capacity = offsets.length - 1;
+        if (capacity < 0 || offsets[0] != 0 || offsets[capacity] != targets.length) {
+            throw new IllegalArgumentException("Offsets do not cover the targets");
+        }
+        for (int v = 0; v < capacity; v++) {
+            if (offsets[v] > offsets[v + 1]) {
+                throw new IllegalArgumentException("Offsets are not ascending at vertex " + v);
+            }
+        }
+        for (int target : targets) {
+            if (target < 0 || target >= capacity) {
+                throw new IllegalArgumentException("Target " + target + " outside vertex capacity " + capacity);
+            }
+        }
+        return new Adjacency(offsets, targets, new AtomicReferenceArray<>(capacity));
+    }
+
+    static Adjacency empty() {
+        return build(0, NO_TARGETS, NO_TARGETS, 0);
+    }
+
+    /**
+     * @return the CSR offsets, excluding override rows; not to be modified
+     */
+    int[] csrOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return the CSR targets, excluding override rows; not to be modified
+     */
+    int[] csrTargets() {
+        return targets;
+    }
+
+    /**
+     * @return the number of vertices addressable in this adjacency; larger ids have no edges
+     */
+    public int vertexCapacity() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return the array holding {@code v}'s neighbours, to be walked from
+     * {@link #start(int, int[])} to {@link #end(int, int[])}
+     */
+    public int[] targets(int v) {
+        if (v < 0 || v >= vertexCapacity()) {
+            return NO_TARGETS;
+        }
+        int[] override = overrides.get(v);
+        return override != null ? override : targets;
+    }
+
+    public int start(int v, int[] targets) {
+        return targets == this.targets ? offsets[v] : 0;
+    }
+
+    public int end(int v, int[] targets) {
+        return targets == this.targets ? offsets[v + 1] : targets.length;
+    }
+
+    public int degree(int v) {
+        int[] row = targets(v);
+        return end(v, row) - start(v, row);
+    }
+
+    public boolean contains(int v, int w) {
+        int[] row = targets(v);
+        return Arrays.binarySearch(row, start(v, row), end(v, row), w) >= 0;
+    }
+
+    /**
+     * @return a sorted copy of {@code v}'s neighbours
+     */
+    public int[] neighbours(int v) {
+        int[] row = targets(v);
+        return Arrays.copyOfRange(row, start(v, row), end(v, row));
+    }
+
+    /**
+     * Replaces the neighbours of {@code v}; the caller serializes writes.
+     */
+    void replace(int v, int[] sortedNeighbours) {
+        overrides.set(v, sortedNeighbours);
+    }
+
+    /**
+     * @return a copy addressing at least {@code vertexCapacity} vertices, sharing the CSR arrays
+     */
+    Adjacency withCapacity(int vertexCapacity) {
+        int current = vertexCapacity();
+        if (vertexCapacity <= current) {
+            return this;
+        }
+        int[] grown = Arrays.copyOf(offsets, vertexCapacity + 1);
+        Arrays.fill(grown, current + 1, grown.length, offsets[current]);
+        AtomicReferenceArray<int[]> grownOverrides = new AtomicReferenceArray<>(vertexCapacity);
+        for (int v = 0; v < current; v++) {
+            grownOverrides.set(v, overrides.get(v));
+        }
+        return new Adjacency(grown, targets, grownOverrides);
+    }
+
+    /**
+     * @return an equivalent adjacency without override rows
+     */
+    Adjacency compact() {
+        int capacity = vertexCapacity();
+        int[] compactOffsets = new int[capacity + 1];
+        for (int v = 0; v < capacity; v++) {
+            compactOffsets[v + 1] = compactOffsets[v] + degree(v);
+        }
+        int[] compactTargets = new int[compactOffsets[capacity]];
+        for (int v = 0; v < capacity; v++) {
+            int[] row = targets(v);
+            int from = start(v, row);
+            System.arraycopy(row, from, compactTargets, compactOffsets[v], end(v, row) - from);
+        }
+        return new Adjacency(compactOffsets, compactTargets, new AtomicReferenceArray<>(capacity));
+    }
+}
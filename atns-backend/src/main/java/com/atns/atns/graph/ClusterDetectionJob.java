@@ -0,0 +1,151 @@
+package com.atns.atns.graph;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects alumni clusters with {@link LabelPropagation} over the resident {@link FollowGraph} on
+ * {@code app.graph.clusters.cron}, stores the labels in {@code profiles.cluster_id} and publishes
+ * them to {@link ClusterLabels} for ranking.
+ *
+ * <p>Metrics: {@code graph.clusters.run} times each computation; {@code graph.clusters.rounds} and
+ * {@code graph.clusters.converged} describe the last run.</p>
+ */
+@Slf4j
+@Component
+public class ClusterDetectionJob {
+
+    // Unchanged rows are skipped, so a stable graph costs reads rather than row versions
+    private static final String UPDATE_SQL =
+            "UPDATE profiles SET cluster_id = ? WHERE id = ? AND cluster_id IS DISTINCT FROM ?";
+    private static final int BATCH_SIZE = 1000;
+
+    private final FollowGraph followGraph;
+    private final ClusterLabels clusterLabels;
+    private final ForkJoinPool graphComputePool;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer runTimer;
+
+    @Value("${app.graph.clusters.max-rounds:20}")
+    private int maxRounds;
+
+    private volatile LabelPropagation.Result lastResult;
+
+    public ClusterDetectionJob(FollowGraph followGraph,
+                               ClusterLabels clusterLabels,
+                               @Qualifier("graphComputePool") ForkJoinPool graphComputePool,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.followGraph = followGraph;
+        this.clusterLabels = clusterLabels;
+        this.graphComputePool = graphComputePool;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.runTimer = Timer.builder("graph.clusters.run")
+                .description("Duration of a label propagation run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registered after construction rather than in it, so the registry never holds a half-built job.
+     */
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("graph.clusters.rounds", this, job -> job.lastResult == null ? Double.NaN : job.lastResult.rounds())
+                .description("Rounds run by the last label propagation")
+                .register(meterRegistry);
+        Gauge.builder("graph.clusters.converged", this, job -> job.lastResult != null && job.lastResult.converged() ? 1 : 0)
+                .description("Whether the last label propagation reached a stable labelling")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.graph.clusters.cron:0 30 4 * * *}")
+    public void run() {
+        if (!followGraph.isReady()) {
+            log.info("Follow graph not loaded; skipping cluster detection");
+            return;
+        }
+        FollowGraph.Frozen graph = followGraph.freeze();
+
+        long start = System.nanoTime();
+        LabelPropagation.Result result = LabelPropagation.compute(graph.following(), graph.followers(),
+                graphComputePool, maxRounds);
+        runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        lastResult = result;
+        if (!result.converged()) {
+            log.warn("Label propagation stopped after {} rounds with {} labels still changing",
+                    result.rounds(), result.changed());
+        }
+
+        long persistStart = System.currentTimeMillis();
+        int[] clusters = clusters(result.labels(), graph.following(), graph.followers());
+        int updated = persist(clusters);
+        clusterLabels.publish(clusters);
+        log.info("Detected clusters for {} profile ids in {} rounds ({} ms), {} profiles moved, stored in {} ms",
+                result.labels().length, result.rounds(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                updated, System.currentTimeMillis() - persistStart);
+    }
+
+    /**
+     * @return the label per profile id; profiles without any follow get {@link ClusterLabels#NONE}
+     * rather than a cluster of their own
+     */
+    private static int[] clusters(int[] labels, Adjacency following, Adjacency followers) {
+        int[] clusters = Arrays.copyOf(labels, labels.length);
+        for (int v = 0; v < clusters.length; v++) {
+            if (following.degree(v) == 0 && followers.degree(v) == 0) {
+                clusters[v] = ClusterLabels.NONE;
+            }
+        }
+        return clusters;
+    }
+
+    /**
+     * Writes all labels in one transaction, {@value #BATCH_SIZE} rows per JDBC batch.
+     */
+    private int persist(int[] clusters) {
+        return transactionTemplate.execute(status -> {
+            int updated = 0;
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int profileId = 1; profileId < clusters.length; profileId++) {
+                Integer clusterId = clusters[profileId] == ClusterLabels.NONE ? null : clusters[profileId];
+                batch.add(new Object[]{clusterId, profileId, clusterId});
+                if (batch.size() == BATCH_SIZE) {
+                    updated += sum(jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                updated += sum(jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+            }
+            return updated;
+        });
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            sum += Math.max(count, 0); // drivers may report SUCCESS_NO_INFO as -2
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,87 @@
+package com.atns.atns.graph;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * The stored {@code profiles.cluster_id} labels in memory, indexed by profile id, so rankers can
+ * test cluster membership without a query per candidate. Published by {@link ClusterDetectionJob}
+ * after each run and loaded from the table at startup; until then no profile is in a cluster.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterLabels {
+
+    /** Label of profiles without a cluster */
+    public static final int NONE = -1;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile int[] labels = EMPTY;
+
+    /**
+     * @return the cluster of the profile, or {@link #NONE}
+     */
+    public int clusterOf(int profileId) {
+        return labelOf(labels, profileId);
+    }
+
+    /**
+     * @return a test for profiles in the same cluster as {@code profileId}, over the labels
+     * published at the time of the call; always false if the profile has no cluster
+     */
+    public IntPredicate sameClusterAs(int profileId) {
+        int[] current = labels;
+        int cluster = labelOf(current, profileId);
+        return cluster == NONE ? id -> false : id -> labelOf(current, id) == cluster;
+    }
+
+    /**
+     * @param clusters cluster per profile id, {@link #NONE} for profiles without one
+     */
+    synchronized void publish(int[] clusters) {
+        labels = clusters;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM profiles WHERE cluster_id IS NOT NULL",
+                    Integer.class);
+            if (maxId == null) {
+                log.info("No stored clusters; waiting for the next cluster detection run");
+                return;
+            }
+            int[] clusters = new int[maxId + 1];
+            Arrays.fill(clusters, NONE);
+            jdbcTemplate.query("SELECT id, cluster_id FROM profiles WHERE cluster_id IS NOT NULL", rs -> {
+                int profileId = rs.getInt(1);
+                if (profileId < clusters.length) {
+                    clusters[profileId] = rs.getInt(2);
+                }
+            });
+            synchronized (this) {
+                if (labels == EMPTY) { // a run finishing meanwhile is newer
+                    labels = clusters;
+                }
+            }
+            log.info("Loaded stored clusters for up to {} profile ids", maxId);
+        } catch (Exception e) {
+            log.error("Failed to load stored clusters", e);
+        }
+    }
+
+    private static int labelOf(int[] labels, int profileId) {
+        return profileId >= 0 && profileId < labels.length ? labels[profileId] : NONE;
+    }
+}
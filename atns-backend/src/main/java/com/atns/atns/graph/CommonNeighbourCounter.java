@@ -0,0 +1,109 @@
+package com.atns.atns.graph;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Two-hop common-neighbour counting over an {@link Adjacency}: for every vertex {@code w} two
+ * steps away from {@code self}, the number of {@code self}'s neighbours that lead to {@code w}.
+ *
+ * <p>Counts accumulate in a dense {@code int[]} indexed by vertex, checked out of a small pool for
+ * the duration of a call, and only the touched entries are reset afterwards, so a call costs the
+ * number of two-hop edges walked and allocates nothing once the pooled buffers have grown to the
+ * graph. As in {@link GraphSearch}, the pool keeps at most one set of buffers per CPU and calls
+ * beyond that allocate their own, so request threads never pin graph-sized arrays. {@code self}
+ * and its direct neighbours are excluded through a bitset rather than a set lookup per edge.</p>
+ */
+public final class CommonNeighbourCounter {
+
+    private static final ArrayBlockingQueue<Scratch> SCRATCH =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    private CommonNeighbourCounter() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * Receives each two-hop vertex with its common-neighbour count.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(int vertex, int count);
+    }
+
+    /**
+     * Walks two steps along {@code adjacency} from {@code self} and reports every vertex reached
+     * that is neither {@code self} nor one of its neighbours.
+     *
+     * @return the number of vertices reported
+     */
+    public static int count(Adjacency adjacency, int self, Sink sink) {
+        int capacity = adjacency.vertexCapacity();
+        if (self < 0 || self >= capacity) {
+            return 0;
+        }
+        Scratch polled = SCRATCH.poll();
+        Scratch scratch = (polled != null ? polled : new Scratch()).prepare(capacity);
+        int[] counts = scratch.counts;
+        int[] touched = scratch.touched;
+        long[] excluded = scratch.excluded;
+
+        int[] row = adjacency.targets(self);
+        int from = adjacency.start(self, row);
+        int to = adjacency.end(self, row);
+        excluded[self >>> 6] |= 1L << self;
+        for (int i = from; i < to; i++) {
+            excluded[row[i] >>> 6] |= 1L << row[i];
+        }
+
+        int size = 0;
+        try {
+            for (int i = from; i < to; i++) {
+                int v = row[i];
+                int[] targets = adjacency.targets(v);
+                for (int j = adjacency.start(v, targets), end = adjacency.end(v, targets); j < end; j++) {
+                    int w = targets[j];
+                    if ((excluded[w >>> 6] & (1L << w)) != 0) {
+                        continue;
+                    }
+                    if (counts[w]++ == 0) {
+                        touched[size++] = w;
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                sink.accept(touched[i], counts[touched[i]]);
+            }
+            return size;
+        } finally {
+            for (int i = 0; i < size; i++) {
+                counts[touched[i]] = 0;
+            }
+            excluded[self >>> 6] = 0;
+            for (int i = from; i < to; i++) {
+                excluded[row[i] >>> 6] = 0;
+            }
+            SCRATCH.offer(scratch); // dropped if the pool is full
+        }
+    }
+
+    /**
+     * Buffers of one call, grown to the graph's vertex capacity; used by one thread at a time.
+     * While pooled, every count is zero and every excluded bit is clear.
+     */
+    private static final class Scratch {
+
+        private int[] counts = new int[0];
+        private int[] touched = new int[0];
+        private long[] excluded = new long[0];
+
+        Scratch prepare(int capacity) {
+            if (counts.length < capacity) {
+                int size = Math.max(capacity, counts.length + (counts.length >> 1));
+                counts = new int[size];
+                touched = new int[size];
+                excluded = new long[(size + 63) >>> 6];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.atns.atns.graph;
+
+import com.atns.atns.repo.FollowRepo;
+import com.atns.atns.repo.UnfollowRepo;
+import com.atns.atns.utils.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident copy of the follow relation as forward ({@code follower -> followed}) and reverse
+ * {@link Adjacency} lists, so connection queries run without SQL. It is built lazily from one
+ * scalar query on first use and then kept up to date by
+ * {@link com.atns.atns.service.impl.FollowServiceImpl} once each change commits.
+ *
+ * <p>Writes are serialized and replace single rows; readers take {@link #snapshot()} once per
+ * query and never block. Every change bumps {@link #version()}, which callers can use to key
+ * derived results.</p>
+ *
+ * <p>The graph is warmed on a background thread once the application is ready, unless
+ * {@code app.graph.enabled=false}. Until {@link #isReady()}, callers should use a SQL path
+ * rather than block on the load.</p>
+ *
+ * <p>With {@code app.graph.snapshot.path} set, the graph is also written to that file every
+ * {@code app.graph.snapshot.interval-ms} and on shutdown. Warm-up then maps the file and replays
+ * the unfollow tombstones and follows recorded since its watermark. Follows removed some other way,
+ * such as a profile deletion, leave no tombstone, so the replayed graph is used only if its edge
+ * count and {@link #edgeChecksum checksum} match {@code follows}; otherwise it is rebuilt from the
+ * table as before. Tombstones older than {@code app.graph.snapshot.tombstone-retention-days} are
+ * purged nightly.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowGraph {
+
+    /** Override rows tolerated, relative to the edge count, before the CSR arrays are rebuilt */
+    private static final int COMPACTION_DIVISOR = 8;
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    /** Follows are replayed from this long before the watermark, covering commits still in flight at capture */
+    private static final Duration REPLAY_MARGIN = Duration.ofMinutes(5);
+
+    /** Modulus of the edge checksum, the largest prime below 2^31 so every step fits in a long */
+    private static final long CHECKSUM_MODULUS = 2147483647L;
+
+    private final FollowRepo followRepo;
+    private final UnfollowRepo unfollowRepo;
+
+    @Value("${app.graph.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.graph.snapshot.path:}")
+    private String snapshotPath;
+
+    @Value("${app.graph.snapshot.tombstone-retention-days:7}")
+    private int tombstoneRetentionDays;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private long edgeCount;
+    private int overrideRows;
+    private volatile long writtenVersion = -1;
+
+    /**
+     * Both directions of the relation, published together.
+     */
+    public record Snapshot(Adjacency following, Adjacency followers) {
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    /**
+     * Both directions compacted into private copies that later follows and unfollows never touch,
+     * with the version they reflect. For whole-graph jobs that read each row more than once: the
+     * rows of a live {@link Snapshot} are replaced as writes arrive.
+     */
+    public record Frozen(Adjacency following, Adjacency followers, long version) {
+    }
+
+    /**
+     * Copies the graph under the write lock; costs one extra copy of the CSR arrays for as long as
+     * the caller holds it.
+     *
+     * @throws IllegalStateException if the graph is not {@link #isReady() ready}
+     */
+    public synchronized Frozen freeze() {
+        if (snapshot == null) {
+            throw new IllegalStateException("Follow graph is not loaded");
+        }
+        return new Frozen(snapshot.following().compact(), snapshot.followers().compact(), version.get());
+    }
+
+    /**
+     * @return {@code true} once the graph is loaded and kept up to date
+     */
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Follow graph disabled; connection queries use SQL");
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                snapshot();
+            } catch (Exception e) {
+                log.error("Failed to warm up follow graph; connection queries stay on SQL", e);
+            }
+        }, "follow-graph-warmup");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * @return a counter bumped by every applied follow or unfollow
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Adds the edge once the current transaction commits.
+     */
+    public void follow(Integer followerId, Integer followedId) {
+        TransactionUtils.afterCommit(() -> apply(followerId, followedId, true));
+    }
+
+    /**
+     * Removes the edge once the current transaction commits.
+     */
+    public void unfollow(Integer followerId, Integer followedId) {
+        TransactionUtils.afterCommit(() -> apply(followerId, followedId, false));
+    }
+
+    private synchronized void apply(int followerId, int followedId, boolean add) {
+        if (snapshot == null) {
+            // Not built yet; the initial load will read the committed state
+            return;
+        }
+        Snapshot current = withCapacityFor(snapshot, Math.max(followerId, followedId));
+        snapshot = current;
+
+        boolean changed = add
+                ? insert(current.following(), followerId, followedId) | insert(current.followers(), followedId, followerId)
+                : delete(current.following(), followerId, followedId) | delete(current.followers(), followedId, followerId);
+        if (!changed) {
+            return;
+        }
+        edgeCount += add ? 1 : -1;
+        overrideRows += 2;
+        version.incrementAndGet();
+
+        if (overrideRows > Math.max(MIN_COMPACTION_THRESHOLD, edgeCount / COMPACTION_DIVISOR)) {
+            snapshot = new Snapshot(current.following().compact(), current.followers().compact());
+            overrideRows = 0;
+            log.debug("Compacted follow graph: {} edges", edgeCount);
+        }
+    }
+
+    private static Snapshot withCapacityFor(Snapshot current, int vertex) {
+        int capacity = current.following().vertexCapacity();
+        if (vertex < capacity) {
+            return current;
+        }
+        int grown = Math.max(vertex + 1, capacity + (capacity >> 1));
+        return new Snapshot(current.following().withCapacity(grown), current.followers().withCapacity(grown));
+    }
+
+    private static boolean insert(Adjacency adjacency, int v, int w) {
+        int[] row = adjacency.neighbours(v);
+        int at = Arrays.binarySearch(row, w);
+        if (at >= 0) {
+            return false;
+        }
+        at = -at - 1;
+        int[] copy = new int[row.length + 1];
+        System.arraycopy(row, 0, copy, 0, at);
+        copy[at] = w;
+        System.arraycopy(row, at, copy, at + 1, row.length - at);
+        adjacency.replace(v, copy);
+        return true;
+    }
+
+    private static boolean delete(Adjacency adjacency, int v, int w) {
+        int[] row = adjacency.neighbours(v);
+        int at = Arrays.binarySearch(row, w);
+        if (at < 0) {
+            return false;
+        }
+        int[] copy = new int[row.length - 1];
+        System.arraycopy(row, 0, copy, 0, at);
+        System.arraycopy(row, at + 1, copy, at, row.length - at - 1);
+        adjacency.replace(v, copy);
+        return true;
+    }
+
+    private synchronized Snapshot load() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        Snapshot loaded = restore();
+        if (loaded == null) {
+            loaded = loadFromDatabase();
+        }
+        overrideRows = 0;
+        snapshot = loaded;
+        version.incrementAndGet();
+        return loaded;
+    }
+
+    private Snapshot loadFromDatabase() {
+        long start = System.currentTimeMillis();
+
+        List<Object[]> edges = followRepo.findAllEdges();
+        int[] followers = new int[edges.size()];
+        int[] followed = new int[edges.size()];
+        int capacity = 0;
+        for (int i = 0; i < followers.length; i++) {
+            Object[] row = edges.get(i);
+            followers[i] = (Integer) row[0];
+            followed[i] = (Integer) row[1];
+            capacity = Math.max(capacity, Math.max(followers[i], followed[i]) + 1);
+        }
+
+        Snapshot loaded = new Snapshot(Adjacency.build(capacity, followers, followed, followers.length),
+                Adjacency.build(capacity, followed, followers, followed.length));
+        edgeCount = loaded.following().csrTargets().length;
+        log.info("Built follow graph: {} edges over {} profile ids in {} ms",
+                edgeCount, capacity, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    /**
+     * Maps the snapshot file and replays the unfollows and follows recorded since its watermark.
+     * Every tombstoned edge is removed before every recent follow is added back: an edge that was
+     * unfollowed and followed again has a follow row newer than its tombstone, and an edge that
+     * exists now and is absent from the snapshot must have been followed since.
+     *
+     * @return the restored graph, or {@code null} if there is no usable snapshot
+     */
+    private Snapshot restore() {
+        Path path = snapshotFile();
+        if (path == null || !Files.isReadable(path)) {
+            return null;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            FollowGraphSnapshotFile.Contents contents = FollowGraphSnapshotFile.read(path);
+            Snapshot restored = new Snapshot(contents.following(), contents.followers());
+            long edges = contents.following().csrTargets().length;
+            LocalDateTime since = contents.watermark().minus(REPLAY_MARGIN);
+
+            List<Object[]> removed = unfollowRepo.findEdgesDeletedSince(since);
+            for (Object[] row : removed) {
+                int followerId = (Integer) row[0];
+                int followedId = (Integer) row[1];
+                if (delete(restored.following(), followerId, followedId)) {
+                    delete(restored.followers(), followedId, followerId);
+                    edges--;
+                }
+            }
+            List<Object[]> recent = followRepo.findEdgesCreatedSince(since);
+            for (Object[] row : recent) {
+                int followerId = (Integer) row[0];
+                int followedId = (Integer) row[1];
+                restored = withCapacityFor(restored, Math.max(followerId, followedId));
+                if (insert(restored.following(), followerId, followedId)) {
+                    insert(restored.followers(), followedId, followerId);
+                    edges++;
+                }
+            }
+
+            long expected = followRepo.countDistinctEdges();
+            if (edges != expected) {
+                log.info("Follow graph snapshot from {} has {} edges after replay but follows has {}; rebuilding",
+                        contents.watermark(), edges, expected);
+                return null;
+            }
+            Snapshot compacted = new Snapshot(restored.following().compact(), restored.followers().compact());
+            if (edgeChecksum(compacted.following()) != followRepo.checksumDistinctEdges()) {
+                log.info("Follow graph snapshot from {} differs from follows after replay; rebuilding",
+                        contents.watermark());
+                return null;
+            }
+            edgeCount = edges;
+            log.info("Restored follow graph from {}: {} edges, {} unfollows and {} follows replayed, in {} ms",
+                    path, edges, removed.size(), recent.size(), System.currentTimeMillis() - start);
+            return compacted;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore follow graph from {}; rebuilding from follows", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Sum over every edge of a hash of {@code (follower, followed)}, modulo a prime, so the result
+     * does not depend on the order edges are visited in. Computed the same way by
+     * {@link FollowRepo#checksumDistinctEdges()}.
+     *
+     * @param following a compacted forward adjacency
+     */
+    static long edgeChecksum(Adjacency following) {
+        int[] offsets = following.csrOffsets();
+        int[] targets = following.csrTargets();
+        long sum = 0;
+        for (int v = 0; v < following.vertexCapacity(); v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                long x = ((long) v * 1000003 + targets[i]) % CHECKSUM_MODULUS;
+                sum = (sum + (x * x % CHECKSUM_MODULUS * 48271 + x) % CHECKSUM_MODULUS) % CHECKSUM_MODULUS;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Drops unfollow tombstones older than {@code app.graph.snapshot.tombstone-retention-days}; a
+     * snapshot older than that is rejected by the checksum and rebuilt instead.
+     */
+    @Scheduled(cron = "${app.graph.snapshot.tombstone-purge-cron:0 15 4 * * *}")
+    public void purgeTombstones() {
+        int purged = unfollowRepo.deleteByDeletedAtBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        log.info("Purged {} unfollow tombstones older than {} days", purged, tombstoneRetentionDays);
+    }
+
+    /**
+     * Writes the graph to {@code app.graph.snapshot.path} if it changed since the last write.
+     * Compaction happens under the write lock; the file is written outside of it from CSR arrays
+     * that are never modified.
+     */
+    @Scheduled(initialDelayString = "${app.graph.snapshot.interval-ms:900000}",
+            fixedDelayString = "${app.graph.snapshot.interval-ms:900000}")
+    @PreDestroy
+    public void writeSnapshot() {
+        Path path = snapshotFile();
+        if (path == null || !isReady() || version.get() == writtenVersion) {
+            return;
+        }
+        Snapshot compacted;
+        LocalDateTime watermark;
+        long capturedVersion;
+        synchronized (this) {
+            watermark = LocalDateTime.now();
+            compacted = new Snapshot(snapshot.following().compact(), snapshot.followers().compact());
+            snapshot = compacted;
+            overrideRows = 0;
+            capturedVersion = version.get();
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            FollowGraphSnapshotFile.write(path, compacted.following(), compacted.followers(), watermark);
+            writtenVersion = capturedVersion;
+            log.info("Wrote follow graph snapshot to {}: {} edges in {} ms",
+                    path, compacted.following().csrTargets().length, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write follow graph snapshot to {}", path, e);
+        }
+    }
+
+    private Path snapshotFile() {
+        return snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+}
@@ -0,0 +1,124 @@
+package com.atns.atns.graph;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary snapshot of the follow graph, read back through a memory mapping so a restart costs one
+ * sequential read instead of a full scan of {@code follows}. Layout, all big-endian:
+ *
+ * <pre>
+ * int   magic "ATFG"
+ * int   format version
+ * long  watermark, capture time in the local time of {@code follows.created_at}, as epoch seconds
+ * int   vertex capacity V
+ * int   edge count E
+ * int[V + 1] following offsets, int[E] following targets
+ * int[V + 1] followers offsets, int[E] followers targets
+ * </pre>
+ *
+ * <p>Vertices are profile ids, so no ordinal map is stored. Files are written next to the target
+ * and moved into place, so a reader never sees a partial snapshot.</p>
+ */
+final class FollowGraphSnapshotFile {
+
+    private static final int MAGIC = 0x41544647;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+
+    private FollowGraphSnapshotFile() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * A snapshot as read back from disk.
+     *
+     * @param watermark follows created after this moment may be missing from the snapshot
+     */
+    record Contents(Adjacency following, Adjacency followers, LocalDateTime watermark) {
+    }
+
+    /**
+     * @param following compacted forward adjacency
+     * @param followers compacted reverse adjacency, with the same capacity and edge count
+     */
+    static void write(Path path, Adjacency following, Adjacency followers, LocalDateTime watermark) throws IOException {
+        int capacity = following.vertexCapacity();
+        int edges = following.csrTargets().length;
+        if (followers.vertexCapacity() != capacity || followers.csrTargets().length != edges) {
+            throw new IllegalArgumentException("Both directions must have the same vertices and edges");
+        }
+        long size = HEADER_BYTES + 2L * Integer.BYTES * ((capacity + 1L) + edges);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Follow graph too large for a single mapped snapshot: " + size + " bytes");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putLong(watermark.toEpochSecond(ZoneOffset.UTC))
+                        .putInt(capacity)
+                        .putInt(edges);
+                IntBuffer ints = buffer.asIntBuffer();
+                ints.put(following.csrOffsets(), 0, capacity + 1).put(following.csrTargets());
+                ints.put(followers.csrOffsets(), 0, capacity + 1).put(followers.csrTargets());
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a follow graph snapshot: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported follow graph snapshot format");
+            }
+            LocalDateTime watermark = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            int capacity = buffer.getInt();
+            int edges = buffer.getInt();
+            if (capacity < 0 || edges < 0 || size != HEADER_BYTES + 2L * Integer.BYTES * ((capacity + 1L) + edges)) {
+                throw new IOException("Truncated follow graph snapshot");
+            }
+
+            // One bulk copy per array out of the mapping; the adjacency lists live on the heap
+            IntBuffer ints = buffer.asIntBuffer();
+            try {
+                Adjacency following = readDirection(ints, capacity, edges);
+                Adjacency followers = readDirection(ints, capacity, edges);
+                return new Contents(following, followers, watermark);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt follow graph snapshot", e);
+            }
+        }
+    }
+
+    private static Adjacency readDirection(IntBuffer ints, int capacity, int edges) {
+        int[] offsets = new int[capacity + 1];
+        int[] targets = new int[edges];
+        ints.get(offsets).get(targets);
+        return Adjacency.of(offsets, targets);
+    }
+}
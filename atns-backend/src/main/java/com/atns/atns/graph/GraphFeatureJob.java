@@ -0,0 +1,58 @@
+package com.atns.atns.graph;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes {@link GraphFeatures} over the resident {@link FollowGraph} on
+ * {@code app.graph.features.cron} and hands them to the {@link GraphFeatureStore}.
+ *
+ * <p>Metrics: {@code graph.features.run} times each computation.</p>
+ */
+@Slf4j
+@Component
+public class GraphFeatureJob {
+
+    private final FollowGraph followGraph;
+    private final ForkJoinPool graphComputePool;
+    private final GraphFeatureStore graphFeatureStore;
+    private final Timer runTimer;
+
+    public GraphFeatureJob(FollowGraph followGraph,
+                           @Qualifier("graphComputePool") ForkJoinPool graphComputePool,
+                           GraphFeatureStore graphFeatureStore,
+                           MeterRegistry meterRegistry) {
+        this.followGraph = followGraph;
+        this.graphComputePool = graphComputePool;
+        this.graphFeatureStore = graphFeatureStore;
+        this.runTimer = Timer.builder("graph.features.run")
+                .description("Duration of a graph feature computation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.graph.features.cron:0 0 5 * * *}")
+    public void run() {
+        if (!followGraph.isReady()) {
+            log.info("Follow graph not loaded; skipping graph features");
+            return;
+        }
+        FollowGraph.Frozen graph = followGraph.freeze();
+
+        long start = System.nanoTime();
+        GraphFeatures features = GraphFeatures.compute(graph, graphComputePool);
+        long nanos = System.nanoTime() - start;
+        runTimer.record(nanos, TimeUnit.NANOSECONDS);
+
+        long persistStart = System.currentTimeMillis();
+        graphFeatureStore.replace(features, graph.version());
+        log.info("Computed graph features for {} profile ids in {} ms, stored in {} ms", features.vertexCapacity(),
+                TimeUnit.NANOSECONDS.toMillis(nanos), System.currentTimeMillis() - persistStart);
+    }
+}
@@ -0,0 +1,119 @@
+package com.atns.atns.graph;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the latest {@link GraphFeatures} in memory for O(1) reads and mirrors them in the
+ * {@code profile_graph_features} table, from which they are reloaded at startup so readers do not
+ * wait for the next {@link GraphFeatureJob} run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GraphFeatureStore {
+
+    private static final String DELETE_SQL = "DELETE FROM profile_graph_features";
+    private static final String INSERT_SQL = """
+            INSERT INTO profile_graph_features (profile_id, in_degree, out_degree, mutual_degree, neighbour_count,
+                triangles, clustering_coefficient, reciprocity)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String SELECT_SQL = """
+            SELECT profile_id, in_degree, out_degree, mutual_degree, neighbour_count, triangles
+            FROM profile_graph_features
+            """;
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Published published;
+
+    /**
+     * @param graphVersion {@link FollowGraph#version()} the features were computed at, or -1 when
+     *                     they were loaded from the table
+     */
+    public record Published(GraphFeatures features, long graphVersion, Instant computedAt) {
+    }
+
+    public boolean isReady() {
+        return published != null;
+    }
+
+    /**
+     * @return the latest features, or {@code null} before the first computation or load
+     */
+    public Published current() {
+        return published;
+    }
+
+    /**
+     * Makes {@code features} visible to readers and then replaces the stored rows in one
+     * transaction, {@value #BATCH_SIZE} rows per JDBC batch. Profiles without any follow have
+     * all-zero features and no row.
+     */
+    public void replace(GraphFeatures features, long graphVersion) {
+        synchronized (this) {
+            published = new Published(features, graphVersion, Instant.now());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_SQL);
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int profileId = 1; profileId < features.vertexCapacity(); profileId++) {
+                if (features.neighbourCount(profileId) == 0) {
+                    continue;
+                }
+                batch.add(new Object[]{profileId, features.inDegree(profileId), features.outDegree(profileId),
+                        features.mutualDegree(profileId), features.neighbourCount(profileId),
+                        features.triangles(profileId), (float) features.clusteringCoefficient(profileId),
+                        (float) features.reciprocity(profileId)});
+                if (batch.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            long start = System.currentTimeMillis();
+            Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(profile_id) FROM profile_graph_features", Integer.class);
+            if (maxId == null) {
+                log.info("No stored graph features; waiting for the next feature computation");
+                return;
+            }
+            GraphFeatures features = GraphFeatures.empty(maxId + 1);
+            jdbcTemplate.query(SELECT_SQL, rs -> {
+                int profileId = rs.getInt(1);
+                if (profileId < features.vertexCapacity()) {
+                    features.set(profileId, rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6));
+                }
+            });
+            synchronized (this) {
+                if (published == null) { // a computation finishing meanwhile is newer
+                    published = new Published(features, -1, Instant.now());
+                }
+            }
+            log.info("Loaded stored graph features for up to {} profile ids in {} ms", maxId,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load stored graph features", e);
+        }
+    }
+}
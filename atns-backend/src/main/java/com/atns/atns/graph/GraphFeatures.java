@@ -0,0 +1,222 @@
+package com.atns.atns.graph;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Per-vertex structural features of the follow graph in primitive arrays indexed by profile id:
+ * in/out degree, mutual follows, undirected neighbour count and undirected triangle count, from
+ * which the local clustering coefficient and the reciprocity ratio follow in O(1).
+ *
+ * <p>{@link #compute} first merges every vertex's following and follower rows into an undirected
+ * CSR adjacency, then counts for each vertex {@code v} the edges among its neighbours as half the
+ * number of common neighbours summed over its neighbours {@code u}, using the galloping
+ * intersection of {@link SortedIntArrays}. Every pass runs over vertex ranges on the given pool,
+ * and every vertex writes only its own slots.</p>
+ */
+public final class GraphFeatures {
+
+    /** Rows per task; triangle counting is heavier per row than a PageRank step */
+    private static final int MIN_RANGE = 1024;
+
+    private final int[] inDegree;
+    private final int[] outDegree;
+    private final int[] mutualDegree;
+    private final int[] neighbourCount;
+    private final int[] triangles;
+
+    private GraphFeatures(int[] inDegree, int[] outDegree, int[] mutualDegree, int[] neighbourCount, int[] triangles) {
+        this.inDegree = inDegree;
+        this.outDegree = outDegree;
+        this.mutualDegree = mutualDegree;
+        this.neighbourCount = neighbourCount;
+        this.triangles = triangles;
+    }
+
+    /**
+     * Allocates empty features for {@code capacity} vertices, to be filled through {@link #set}
+     * when loading stored rows.
+     */
+    static GraphFeatures empty(int capacity) {
+        return new GraphFeatures(new int[capacity], new int[capacity], new int[capacity], new int[capacity],
+                new int[capacity]);
+    }
+
+    /**
+     * Takes a {@link FollowGraph#freeze() frozen} graph because the passes depend on each other's
+     * reads: pass 2 fills exactly the row sizes pass 1 counted, and pass 3 relies on the rows being
+     * sorted. A row replaced in between would spill into the next vertex's row.
+     */
+    public static GraphFeatures compute(FollowGraph.Frozen graph, ForkJoinPool pool) {
+        Adjacency following = graph.following();
+        Adjacency followers = graph.followers();
+        int n = Math.max(following.vertexCapacity(), followers.vertexCapacity());
+        GraphFeatures features = empty(n);
+
+        // Pass 1: degrees and the size of every merged row
+        int[] offsets = new int[n + 1];
+        pool.invoke(new RangeAction(0, n, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                int[] out = following.targets(v);
+                int[] in = followers.targets(v);
+                int outFrom = following.start(v, out);
+                int outTo = following.end(v, out);
+                int inFrom = followers.start(v, in);
+                int inTo = followers.end(v, in);
+                int mutual = SortedIntArrays.intersectionSize(out, outFrom, outTo, in, inFrom, inTo);
+                features.outDegree[v] = outTo - outFrom;
+                features.inDegree[v] = inTo - inFrom;
+                features.mutualDegree[v] = mutual;
+                features.neighbourCount[v] = outTo - outFrom + inTo - inFrom - mutual;
+            }
+        }));
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + features.neighbourCount[v];
+        }
+
+        // Pass 2: the undirected rows, as sorted unions of both directions
+        int[] neighbours = new int[offsets[n]];
+        pool.invoke(new RangeAction(0, n, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                int[] out = following.targets(v);
+                int[] in = followers.targets(v);
+                union(out, following.start(v, out), following.end(v, out),
+                        in, followers.start(v, in), followers.end(v, in), neighbours, offsets[v]);
+            }
+        }));
+
+        // Pass 3: triangles through every vertex
+        pool.invoke(new RangeAction(0, n, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                long closed = 0;
+                for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+                    int u = neighbours[i];
+                    closed += SortedIntArrays.intersectionSize(neighbours, offsets[v], end,
+                            neighbours, offsets[u], offsets[u + 1]);
+                }
+                features.triangles[v] = (int) Math.min(closed / 2, Integer.MAX_VALUE);
+            }
+        }));
+        return features;
+    }
+
+    private static void union(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out, int at) {
+        while (aFrom < aTo && bFrom < bTo) {
+            int x = a[aFrom];
+            int y = b[bFrom];
+            if (x <= y) {
+                aFrom++;
+            }
+            if (y <= x) {
+                bFrom++;
+            }
+            out[at++] = Math.min(x, y);
+        }
+        while (aFrom < aTo) {
+            out[at++] = a[aFrom++];
+        }
+        while (bFrom < bTo) {
+            out[at++] = b[bFrom++];
+        }
+    }
+
+    public int vertexCapacity() {
+        return triangles.length;
+    }
+
+    public int inDegree(int v) {
+        return contains(v) ? inDegree[v] : 0;
+    }
+
+    public int outDegree(int v) {
+        return contains(v) ? outDegree[v] : 0;
+    }
+
+    /**
+     * @return the number of profiles {@code v} follows that follow it back
+     */
+    public int mutualDegree(int v) {
+        return contains(v) ? mutualDegree[v] : 0;
+    }
+
+    /**
+     * @return the number of distinct profiles {@code v} follows or is followed by
+     */
+    public int neighbourCount(int v) {
+        return contains(v) ? neighbourCount[v] : 0;
+    }
+
+    /**
+     * @return the number of connected neighbour pairs of {@code v}, ignoring edge directions
+     */
+    public int triangles(int v) {
+        return contains(v) ? triangles[v] : 0;
+    }
+
+    /**
+     * @return the share of {@code v}'s neighbour pairs that are connected, or 0 below two neighbours
+     */
+    public double clusteringCoefficient(int v) {
+        int degree = neighbourCount(v);
+        return degree < 2 ? 0 : 2.0 * triangles(v) / ((double) degree * (degree - 1));
+    }
+
+    /**
+     * @return the share of {@code v}'s follows that are followed back, or 0 if it follows no one
+     */
+    public double reciprocity(int v) {
+        int out = outDegree(v);
+        return out == 0 ? 0 : (double) mutualDegree(v) / out;
+    }
+
+    /**
+     * Stores the features of one vertex; only for filling {@link #empty} instances before they are
+     * published.
+     */
+    void set(int v, int inDegree, int outDegree, int mutualDegree, int neighbourCount, int triangles) {
+        this.inDegree[v] = inDegree;
+        this.outDegree[v] = outDegree;
+        this.mutualDegree[v] = mutualDegree;
+        this.neighbourCount[v] = neighbourCount;
+        this.triangles[v] = triangles;
+    }
+
+    private boolean contains(int v) {
+        return v >= 0 && v < triangles.length;
+    }
+
+    @FunctionalInterface
+    private interface RangeBody {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Runs {@link RangeBody} over a row range, split in halves down to {@value #MIN_RANGE} rows.
+     */
+    private static final class RangeAction extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final RangeBody body;
+
+        RangeAction(int from, int to, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_RANGE) {
+                body.apply(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, body), new RangeAction(mid, to, body));
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.atns.atns.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Breadth-first searches over {@link Adjacency} lists.
+ *
+ * <p>Queues and visit marks are checked out of a small pool for the duration of a search and
+ * returned afterwards. A vertex counts as visited when its mark equals the current search's
+ * generation, so starting a search costs nothing however large the graph is, and the marks are
+ * only cleared when the generation counter wraps. The pool keeps at most one set of buffers per
+ * CPU; searches beyond that allocate their own, which are dropped on return, so request threads
+ * never pin graph-sized arrays.</p>
+ */
+public final class GraphSearch {
+
+    private static final ArrayBlockingQueue<Scratch> SCRATCH =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    /** Returned by {@link Side#expand} when the deadline passed */
+    private static final int TIMED_OUT = -2;
+    /** Edges scanned between two deadline checks */
+    private static final int DEADLINE_CHECK_INTERVAL = 4096;
+
+    private GraphSearch() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * Level-order BFS along {@code adjacency} from {@code start}.
+     *
+     * @return every vertex within {@code maxDegree} steps mapped to its degree, in visit order
+     */
+    public static Map<Integer, Integer> degrees(Adjacency adjacency, int start, int maxDegree) {
+        Scratch scratch = acquire(adjacency.vertexCapacity());
+        try {
+            return degrees(adjacency, start, maxDegree, scratch);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private static Map<Integer, Integer> degrees(Adjacency adjacency, int start, int maxDegree, Scratch scratch) {
+        int[] queue = scratch.queueA;
+        int[] marks = scratch.marksA;
+        int generation = scratch.generation;
+
+        Map<Integer, Integer> degrees = new LinkedHashMap<>();
+        int head = 0;
+        int tail = 0;
+        if (start >= 0 && start < marks.length) {
+            marks[start] = generation;
+            queue[tail++] = start;
+        }
+        for (int degree = 1; degree <= maxDegree && head < tail; degree++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int v = queue[head++];
+                int[] targets = adjacency.targets(v);
+                for (int i = adjacency.start(v, targets), end = adjacency.end(v, targets); i < end; i++) {
+                    int w = targets[i];
+                    if (marks[w] != generation) {
+                        marks[w] = generation;
+                        queue[tail++] = w;
+                        degrees.put(w, degree);
+                    }
+                }
+            }
+        }
+        return degrees;
+    }
+
+    /**
+     * Receives each BFS level as a slice of the search queue, valid only during the call.
+     */
+    @FunctionalInterface
+    public interface LevelSink {
+        /**
+         * @return {@code false} to stop the search
+         */
+        boolean level(int degree, int[] vertices, int from, int to);
+    }
+
+    /**
+     * Level-order BFS along {@code adjacency} from {@code start} that hands over each whole level
+     * as soon as it is expanded instead of collecting a map, so memory stays at the pooled
+     * buffers however many vertices are reached.
+     */
+    public static void levels(Adjacency adjacency, int start, int maxDegree, LevelSink sink) {
+        Scratch scratch = acquire(adjacency.vertexCapacity());
+        try {
+            levels(adjacency, start, maxDegree, sink, scratch);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private static void levels(Adjacency adjacency, int start, int maxDegree, LevelSink sink, Scratch scratch) {
+        int[] queue = scratch.queueA;
+        int[] marks = scratch.marksA;
+        int generation = scratch.generation;
+
+        int head = 0;
+        int tail = 0;
+        if (start >= 0 && start < marks.length) {
+            marks[start] = generation;
+            queue[tail++] = start;
+        }
+        for (int degree = 1; degree <= maxDegree && head < tail; degree++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int v = queue[head++];
+                int[] targets = adjacency.targets(v);
+                for (int i = adjacency.start(v, targets), end = adjacency.end(v, targets); i < end; i++) {
+                    int w = targets[i];
+                    if (marks[w] != generation) {
+                        marks[w] = generation;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            if (levelEnd < tail && !sink.level(degree, queue, levelEnd, tail)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Bidirectional BFS: expands the smaller frontier one whole level at a time, forward along
+     * {@code forward} from {@code from} and backward along {@code backward} from {@code to},
+     * until the two searches meet.
+     *
+     * @param backward the reverse of {@code forward}
+     * @return the length of the shortest path, or -1 if there is none within {@code maxDegree}
+     */
+    public static int distance(Adjacency forward, Adjacency backward, int from, int to, int maxDegree) {
+        if (from == to) {
+            return 0;
+        }
+        int capacity = Math.max(forward.vertexCapacity(), backward.vertexCapacity());
+        if (from < 0 || to < 0 || from >= capacity || to >= capacity) {
+            return -1;
+        }
+        Scratch scratch = acquire(capacity);
+        try {
+            return distance(scratch.side(forward, true, from), scratch.side(backward, false, to), maxDegree);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private static int distance(Side a, Side b, int maxDegree) {
+        while (a.depth + b.depth < maxDegree && a.hasFrontier() && b.hasFrontier()) {
+            // Expanding the cheaper side keeps the two balls small
+            int best = a.frontierSize() <= b.frontierSize() ? a.expand(b, NO_DEADLINE) : b.expand(a, NO_DEADLINE);
+            if (best >= 0) {
+                return best <= maxDegree ? best : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Shortest paths found by {@link #paths}.
+     *
+     * @param paths    vertex sequences from the source to the target, all of the same, shortest length
+     * @param timedOut whether the search gave up at its deadline; {@code paths} is then empty
+     */
+    public record Paths(List<int[]> paths, boolean timedOut) {
+    }
+
+    /**
+     * Bidirectional BFS as in {@link #distance} that also keeps a parent per visited vertex, so
+     * the shortest paths can be walked back from where the searches meet. Stops at the first
+     * level on which they meet and returns up to {@code maxPaths} paths through different
+     * meeting vertices.
+     *
+     * @param deadline {@link System#nanoTime()} value after which the search gives up
+     */
+    public static Paths paths(Adjacency forward, Adjacency backward, int from, int to, int maxDegree,
+                              int maxPaths, long deadline) {
+        if (from == to) {
+            return new Paths(List.of(new int[]{from}), false);
+        }
+        int capacity = Math.max(forward.vertexCapacity(), backward.vertexCapacity());
+        if (from < 0 || to < 0 || from >= capacity || to >= capacity) {
+            return new Paths(List.of(), false);
+        }
+        Scratch scratch = acquire(capacity);
+        try {
+            return paths(scratch.side(forward, true, from), scratch.side(backward, false, to), maxDegree, maxPaths,
+                    deadline);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private static Paths paths(Side a, Side b, int maxDegree, int maxPaths, long deadline) {
+        while (a.depth + b.depth < maxDegree && a.hasFrontier() && b.hasFrontier()) {
+            Side expanded = a.frontierSize() <= b.frontierSize() ? a : b;
+            Side other = expanded == a ? b : a;
+            int levelStart = expanded.tail;
+            int best = expanded.expand(other, deadline);
+            if (best == TIMED_OUT) {
+                return new Paths(List.of(), true);
+            }
+            if (best >= 0) {
+                if (best > maxDegree) {
+                    break;
+                }
+                List<int[]> paths = new ArrayList<>();
+                for (int i = levelStart; i < expanded.tail && paths.size() < maxPaths; i++) {
+                    int meet = expanded.queue[i];
+                    if (other.visited(meet) && expanded.depth + other.levels[meet] == best) {
+                        paths.add(path(a, b, meet, best));
+                    }
+                }
+                return new Paths(paths, false);
+            }
+        }
+        return new Paths(List.of(), false);
+    }
+
+    /**
+     * Checks a set of buffers out of the pool, or allocates one if the pool is empty.
+     */
+    private static Scratch acquire(int capacity) {
+        Scratch scratch = SCRATCH.poll();
+        return (scratch != null ? scratch : new Scratch()).prepare(capacity);
+    }
+
+    /**
+     * Returns buffers to the pool; they are dropped if it is full.
+     */
+    private static void release(Scratch scratch) {
+        SCRATCH.offer(scratch);
+    }
+
+    /**
+     * Joins the forward chain ending at {@code meet} with the backward chain starting at it.
+     */
+    private static int[] path(Side forward, Side backward, int meet, int length) {
+        int[] path = new int[length + 1];
+        int at = forward.levels[meet];
+        for (int v = meet, i = at; i >= 0; v = forward.parents[v], i--) {
+            path[i] = v;
+        }
+        for (int v = meet, i = at; i <= length; v = backward.parents[v], i++) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * One direction of a bidirectional search.
+     */
+    private static final class Side {
+
+        private final Adjacency adjacency;
+        private final int[] queue;
+        private final int[] marks;
+        private final int[] levels;
+        private final int[] parents;
+        private final int generation;
+        private int head;
+        private int tail;
+        private int depth;
+        private int work;
+
+        Side(Adjacency adjacency, int[] queue, int[] marks, int[] levels, int[] parents, int origin, int generation) {
+            this.adjacency = adjacency;
+            this.queue = queue;
+            this.marks = marks;
+            this.levels = levels;
+            this.parents = parents;
+            this.generation = generation;
+            marks[origin] = generation;
+            levels[origin] = 0;
+            parents[origin] = -1;
+            queue[tail++] = origin;
+        }
+
+        boolean hasFrontier() {
+            return head < tail;
+        }
+
+        int frontierSize() {
+            return tail - head;
+        }
+
+        boolean visited(int v) {
+            return marks[v] == generation;
+        }
+
+        /**
+         * Expands the whole current level.
+         *
+         * @return the shortest path length through a vertex also reached by {@code other}, -1 if
+         * there is none, or {@link #TIMED_OUT} once {@code deadline} has passed
+         */
+        int expand(Side other, long deadline) {
+            int best = -1;
+            int levelEnd = tail;
+            depth++;
+            while (head < levelEnd) {
+                int v = queue[head++];
+                int[] targets = adjacency.targets(v);
+                for (int i = adjacency.start(v, targets), end = adjacency.end(v, targets); i < end; i++) {
+                    if (deadline != NO_DEADLINE && ++work % DEADLINE_CHECK_INTERVAL == 0
+                            && System.nanoTime() - deadline > 0) {
+                        return TIMED_OUT;
+                    }
+                    int w = targets[i];
+                    if (visited(w)) {
+                        continue;
+                    }
+                    marks[w] = generation;
+                    levels[w] = depth;
+                    parents[w] = v;
+                    queue[tail++] = w;
+                    if (other.visited(w)) {
+                        int length = depth + other.levels[w];
+                        best = best < 0 ? length : Math.min(best, length);
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Buffers of one search, grown to the graph's vertex capacity; used by one thread at a time.
+     */
+    private static final class Scratch {
+
+        private int[] queueA = new int[0];
+        private int[] queueB = new int[0];
+        private int[] marksA = new int[0];
+        private int[] marksB = new int[0];
+        private int[] levelsA = new int[0];
+        private int[] levelsB = new int[0];
+        private int[] parentsA = new int[0];
+        private int[] parentsB = new int[0];
+        private int generation;
+
+        Scratch prepare(int capacity) {
+            if (marksA.length < capacity) {
+                int size = Math.max(capacity, marksA.length + (marksA.length >> 1));
+                queueA = new int[size];
+                queueB = new int[size];
+                marksA = new int[size];
+                marksB = new int[size];
+                levelsA = new int[size];
+                levelsB = new int[size];
+                parentsA = new int[size];
+                parentsB = new int[size];
+                generation = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(marksA, 0);
+                Arrays.fill(marksB, 0);
+                generation = 1;
+            }
+            return this;
+        }
+
+        /**
+         * @param first whether to use the first or the second set of buffers
+         */
+        Side side(Adjacency adjacency, boolean first, int origin) {
+            return first
+                    ? new Side(adjacency, queueA, marksA, levelsA, parentsA, origin, generation)
+                    : new Side(adjacency, queueB, marksB, levelsB, parentsB, origin, generation);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.atns.atns.graph;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes {@link PageRank} over the resident {@link FollowGraph} on {@code app.graph.influence.cron}
+ * and stores it in {@code profiles.influence_score}, scaled so the average profile scores 1.
+ *
+ * <p>Metrics: {@code graph.pagerank.iteration} and {@code graph.pagerank.run} time each iteration
+ * and each whole computation; {@code graph.pagerank.iterations}, {@code graph.pagerank.residual} and
+ * {@code graph.pagerank.converged} describe the last run.</p>
+ */
+@Slf4j
+@Component
+public class InfluenceScoreJob {
+
+    // Unchanged rows are skipped, so a stable graph costs reads rather than row versions
+    private static final String UPDATE_SQL =
+            "UPDATE profiles SET influence_score = ? WHERE id = ? AND influence_score IS DISTINCT FROM ?";
+    /** Profiles that lost all their follows since the last run drop back to the column default */
+    private static final String RESET_ISOLATED_SQL = """
+            UPDATE profiles p SET influence_score = 0
+            WHERE p.influence_score <> 0
+              AND NOT EXISTS (SELECT 1 FROM follows f WHERE f.follower_id = p.id)
+              AND NOT EXISTS (SELECT 1 FROM follows f WHERE f.followed_id = p.id)
+            """;
+    private static final int BATCH_SIZE = 1000;
+    /** Stored scores are rounded to this many decimals, so noise below it does not rewrite a row */
+    private static final double SCORE_PRECISION = 1e4;
+
+    private final FollowGraph followGraph;
+    private final InfluenceScores influenceScores;
+    private final ForkJoinPool graphComputePool;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer iterationTimer;
+    private final Timer runTimer;
+
+    @Value("${app.graph.influence.damping:0.85}")
+    private double damping;
+
+    @Value("${app.graph.influence.tolerance:1e-6}")
+    private double tolerance;
+
+    @Value("${app.graph.influence.max-iterations:100}")
+    private int maxIterations;
+
+    private volatile PageRank.Result lastResult;
+
+    public InfluenceScoreJob(FollowGraph followGraph,
+                             InfluenceScores influenceScores,
+                             @Qualifier("graphComputePool") ForkJoinPool graphComputePool,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry) {
+        this.followGraph = followGraph;
+        this.influenceScores = influenceScores;
+        this.graphComputePool = graphComputePool;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.iterationTimer = Timer.builder("graph.pagerank.iteration")
+                .description("Duration of one PageRank power iteration")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("graph.pagerank.run")
+                .description("Duration of a whole PageRank computation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The gauges read {@link #lastResult}, so they are registered once the job is fully constructed.
+     */
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("graph.pagerank.iterations", this, job -> job.lastResult == null ? Double.NaN : job.lastResult.iterations())
+                .description("Iterations run by the last PageRank computation")
+                .register(meterRegistry);
+        Gauge.builder("graph.pagerank.residual", this, job -> job.lastResult == null ? Double.NaN : job.lastResult.residual())
+                .description("L1 change of the last PageRank iteration")
+                .register(meterRegistry);
+        Gauge.builder("graph.pagerank.converged", this, job -> job.lastResult != null && job.lastResult.converged() ? 1 : 0)
+                .description("Whether the last PageRank computation reached the tolerance")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.graph.influence.cron:0 0 4 * * *}")
+    public void run() {
+        if (!followGraph.isReady()) {
+            log.info("Follow graph not loaded; skipping influence scores");
+            return;
+        }
+        FollowGraph.Frozen graph = followGraph.freeze();
+
+        long start = System.nanoTime();
+        PageRank.Result result = PageRank.compute(graph.following(), graph.followers(), graphComputePool,
+                damping, tolerance, maxIterations,
+                (iteration, residual, nanos) -> {
+                    iterationTimer.record(nanos, TimeUnit.NANOSECONDS);
+                    log.debug("PageRank iteration {}: residual {}", iteration, residual);
+                });
+        runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        lastResult = result;
+        if (!result.converged()) {
+            log.warn("PageRank stopped after {} iterations with residual {}", result.iterations(), result.residual());
+        }
+
+        long computeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long persistStart = System.currentTimeMillis();
+        double[] scores = storedScores(result.ranks(), graph);
+        int updated = persist(scores);
+        influenceScores.publish(scores);
+        log.info("Computed influence scores for {} profile ids in {} iterations ({} ms), {} rows changed in {} ms",
+                scores.length, result.iterations(), computeMillis, updated, System.currentTimeMillis() - persistStart);
+    }
+
+    /**
+     * @return rank times the vertex count, rounded to {@link #SCORE_PRECISION}; 0 for vertices
+     * without any edge, which are either unused ids or profiles nobody follows and who follow no one
+     */
+    private static double[] storedScores(double[] ranks, FollowGraph.Frozen graph) {
+        double scale = ranks.length;
+        double[] scores = new double[ranks.length];
+        for (int v = 0; v < ranks.length; v++) {
+            if (graph.following().degree(v) > 0 || graph.followers().degree(v) > 0) {
+                scores[v] = Math.round(ranks[v] * scale * SCORE_PRECISION) / SCORE_PRECISION;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Writes the scores of connected profiles in one transaction, {@value #BATCH_SIZE} rows per
+     * JDBC batch, and resets profiles that no longer have any follow in one statement.
+     *
+     * @return the number of rows changed
+     */
+    private int persist(double[] scores) {
+        return transactionTemplate.execute(status -> {
+            int updated = 0;
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int profileId = 1; profileId < scores.length; profileId++) {
+                if (scores[profileId] == 0) {
+                    continue;
+                }
+                batch.add(new Object[]{scores[profileId], profileId, scores[profileId]});
+                if (batch.size() == BATCH_SIZE) {
+                    updated += sum(jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                updated += sum(jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+            }
+            return updated + jdbcTemplate.update(RESET_ISOLATED_SQL);
+        });
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            sum += Math.max(count, 0); // drivers may report SUCCESS_NO_INFO as -2
+        }
+        return sum;
+    }
+}
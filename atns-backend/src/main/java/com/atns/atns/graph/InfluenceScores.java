@@ -0,0 +1,81 @@
+package com.atns.atns.graph;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * The stored {@code profiles.influence_score} values in memory, normalized to {@code [0, 1]} for
+ * ranking: {@code log(1 + score) / log(1 + maxScore)}. The log keeps a few very central profiles
+ * from flattening everyone else to zero. Published by {@link InfluenceScoreJob} after each run and
+ * loaded from the table at startup; until then every profile reads 0.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InfluenceScores {
+
+    private static final float[] NONE = new float[0];
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile float[] normalized = NONE;
+
+    /**
+     * @return the normalized influence of the profile, 0 if it has none or is unknown
+     */
+    public double normalized(int profileId) {
+        float[] current = normalized;
+        return profileId >= 0 && profileId < current.length ? current[profileId] : 0;
+    }
+
+    /**
+     * @param scores stored score per profile id, as written to {@code profiles.influence_score}
+     */
+    void publish(double[] scores) {
+        double max = 0;
+        for (double score : scores) {
+            max = Math.max(max, score);
+        }
+        float[] next = new float[scores.length];
+        if (max > 0) {
+            double scale = Math.log1p(max);
+            for (int v = 0; v < scores.length; v++) {
+                next[v] = (float) (Math.log1p(Math.max(0, scores[v])) / scale);
+            }
+        }
+        synchronized (this) {
+            normalized = next;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM profiles WHERE influence_score > 0",
+                    Integer.class);
+            if (maxId == null) {
+                log.info("No stored influence scores; waiting for the next PageRank run");
+                return;
+            }
+            double[] scores = new double[maxId + 1];
+            jdbcTemplate.query("SELECT id, influence_score FROM profiles WHERE influence_score > 0", rs -> {
+                int profileId = rs.getInt(1);
+                if (profileId < scores.length) {
+                    scores[profileId] = rs.getDouble(2);
+                }
+            });
+            synchronized (this) {
+                if (normalized == NONE) { // a run finishing meanwhile is newer
+                    publish(scores);
+                }
+            }
+            log.info("Loaded stored influence scores for up to {} profile ids", maxId);
+        } catch (Exception e) {
+            log.error("Failed to load stored influence scores", e);
+        }
+    }
+}
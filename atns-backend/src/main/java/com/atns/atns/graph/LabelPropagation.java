@@ -0,0 +1,168 @@
+package com.atns.atns.graph;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Community detection by label propagation over the undirected view of the follow graph.
+ *
+ * <p>Every vertex starts in its own community, labelled with its id, and repeatedly adopts the
+ * label most frequent among its neighbours, where a vertex's neighbours are its following and
+ * follower rows together (a mutual follow counts twice). Ties keep the current label if it is
+ * among the most frequent, and otherwise take the smallest, so a run is deterministic.</p>
+ *
+ * <p>A round updates the even vertices and then the odd ones, each half reading the labels of the
+ * previous half. Fully synchronous updates make two-coloured structures swap labels forever; the
+ * split damps that while each half can still run on the pool in row ranges, with every vertex
+ * writing only its own slot. Labels live in primitive arrays and neighbour labels are counted by
+ * sorting a per-task buffer, so a round allocates nothing per vertex.</p>
+ */
+public final class LabelPropagation {
+
+    /** Rows per task; smaller ranges are not worth a fork */
+    private static final int MIN_RANGE = 8192;
+
+    private LabelPropagation() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * @param labels  community label per vertex; the id of one vertex that started it
+     * @param rounds  rounds run
+     * @param changed vertices whose label changed in the last round
+     */
+    public record Result(int[] labels, int rounds, int changed, boolean converged) {
+    }
+
+    /**
+     * @param following forward adjacency ({@code follower -> followed}); rows are read in every
+     *                  round, so pass a {@link FollowGraph#freeze() frozen} copy to get one
+     *                  consistent labelling while follows keep arriving
+     * @param followers reverse adjacency of {@code following}
+     * @param maxRounds stop after this many rounds even if labels still change
+     */
+    public static Result compute(Adjacency following, Adjacency followers, ForkJoinPool pool, int maxRounds) {
+        int n = Math.max(following.vertexCapacity(), followers.vertexCapacity());
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++) {
+            labels[v] = v;
+        }
+        int[] next = labels.clone();
+
+        int round = 0;
+        int changed = n;
+        while (round < maxRounds && changed > 0) {
+            changed = 0;
+            for (int parity = 0; parity < 2; parity++) {
+                int[] current = labels;
+                int[] updated = next;
+                System.arraycopy(current, 0, updated, 0, n);
+                changed += pool.invoke(new HalfRound(following, followers, current, updated, parity, 0, n));
+                next = current;
+                labels = updated;
+            }
+            round++;
+        }
+        return new Result(labels, round, changed, changed == 0);
+    }
+
+    /**
+     * Relabels the vertices of one parity in a row range, split in halves down to
+     * {@value #MIN_RANGE} rows, and counts the labels that changed.
+     */
+    private static final class HalfRound extends RecursiveTask<Integer> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Adjacency following;
+        private final Adjacency followers;
+        private final int[] current;
+        private final int[] updated;
+        private final int parity;
+        private final int from;
+        private final int to;
+
+        HalfRound(Adjacency following, Adjacency followers, int[] current, int[] updated,
+                  int parity, int from, int to) {
+            this.following = following;
+            this.followers = followers;
+            this.current = current;
+            this.updated = updated;
+            this.parity = parity;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= MIN_RANGE) {
+                return relabel();
+            }
+            int mid = (from + to) >>> 1;
+            HalfRound left = new HalfRound(following, followers, current, updated, parity, from, mid);
+            left.fork();
+            int right = new HalfRound(following, followers, current, updated, parity, mid, to).compute();
+            return right + left.join();
+        }
+
+        private int relabel() {
+            int[] buffer = new int[16];
+            int changed = 0;
+            for (int v = from + ((from & 1) == parity ? 0 : 1); v < to; v += 2) {
+                // Each row is fetched once, so sizing and filling see the same array
+                int[] out = following.targets(v);
+                int outFrom = following.start(v, out);
+                int outTo = following.end(v, out);
+                int[] in = followers.targets(v);
+                int inFrom = followers.start(v, in);
+                int inTo = followers.end(v, in);
+                int size = outTo - outFrom + inTo - inFrom;
+                if (size == 0) {
+                    continue;
+                }
+                if (buffer.length < size) {
+                    buffer = new int[Math.max(size, buffer.length << 1)];
+                }
+                int filled = collect(out, outFrom, outTo, buffer, 0);
+                collect(in, inFrom, inTo, buffer, filled);
+                Arrays.sort(buffer, 0, size);
+
+                int label = current[v];
+                int best = label;
+                int bestCount = 0;
+                int ownCount = 0;
+                for (int i = 0; i < size; ) {
+                    int candidate = buffer[i];
+                    int j = i + 1;
+                    while (j < size && buffer[j] == candidate) {
+                        j++;
+                    }
+                    int count = j - i;
+                    if (count > bestCount) {
+                        best = candidate; // ascending order keeps the smallest of equally frequent labels
+                        bestCount = count;
+                    }
+                    if (candidate == label) {
+                        ownCount = count;
+                    }
+                    i = j;
+                }
+                if (ownCount < bestCount) {
+                    updated[v] = best;
+                    changed++;
+                }
+            }
+            return changed;
+        }
+
+        private int collect(int[] row, int from, int to, int[] buffer, int offset) {
+            for (int i = from; i < to; i++) {
+                buffer[offset++] = current[row[i]];
+            }
+            return offset;
+        }
+    }
+}
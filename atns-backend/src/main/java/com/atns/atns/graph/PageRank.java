@@ -0,0 +1,143 @@
+package com.atns.atns.graph;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PageRank over the follow graph by power iteration on primitive rank vectors.
+ *
+ * <p>Each iteration pulls rank along the reverse adjacency: a vertex's new rank is the teleport
+ * share plus the damped sum of {@code rank(u) / outDegree(u)} over its followers {@code u}. The
+ * per-vertex contributions are computed once per iteration, and both passes are split into row
+ * ranges on the given pool. Every vertex writes only its own slot, so no synchronization is
+ * needed beyond joining the tasks. Rank held by vertices without out-edges is spread evenly, so the
+ * vector keeps summing to one.</p>
+ *
+ * <p>Vertices are profile ids, so unused ids take part as isolated vertices with the teleport
+ * share only; this lowers every score by the same factor and leaves the ordering unchanged.</p>
+ */
+public final class PageRank {
+
+    /** Rows per task; smaller ranges are not worth a fork */
+    private static final int MIN_RANGE = 8192;
+
+    private PageRank() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * Receives the progress of every iteration.
+     */
+    @FunctionalInterface
+    public interface IterationListener {
+        void iteration(int iteration, double residual, long nanos);
+    }
+
+    /**
+     * @param ranks      rank per vertex, summing to one
+     * @param iterations iterations run
+     * @param residual   L1 distance between the last two rank vectors
+     */
+    public record Result(double[] ranks, int iterations, double residual, boolean converged) {
+    }
+
+    /**
+     * @param following forward adjacency ({@code follower -> followed})
+     * @param followers reverse adjacency of {@code following}
+     * @param tolerance stop once the L1 change of an iteration falls below it
+     */
+    public static Result compute(Adjacency following, Adjacency followers, ForkJoinPool pool, double damping,
+                                 double tolerance, int maxIterations, IterationListener listener) {
+        int n = Math.max(following.vertexCapacity(), followers.vertexCapacity());
+        if (n == 0) {
+            return new Result(new double[0], 0, 0, true);
+        }
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] contribution = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        int iteration = 0;
+        double residual = Double.POSITIVE_INFINITY;
+        while (iteration < maxIterations && residual >= tolerance) {
+            long start = System.nanoTime();
+            double[] current = rank;
+            double[] updated = next;
+
+            // Pass 1: what every vertex passes on per out-edge, and the rank stuck at dangling vertices
+            double dangling = pool.invoke(new RangeSum(0, n, (from, to) -> {
+                double stuck = 0;
+                for (int u = from; u < to; u++) {
+                    int degree = following.degree(u);
+                    if (degree == 0) {
+                        contribution[u] = 0;
+                        stuck += current[u];
+                    } else {
+                        contribution[u] = current[u] / degree;
+                    }
+                }
+                return stuck;
+            }));
+
+            // Pass 2: pull contributions along the reverse rows
+            double base = (1 - damping) / n + damping * dangling / n;
+            residual = pool.invoke(new RangeSum(0, n, (from, to) -> {
+                double change = 0;
+                for (int v = from; v < to; v++) {
+                    double sum = 0;
+                    int[] sources = followers.targets(v);
+                    for (int i = followers.start(v, sources), end = followers.end(v, sources); i < end; i++) {
+                        sum += contribution[sources[i]];
+                    }
+                    updated[v] = base + damping * sum;
+                    change += Math.abs(updated[v] - current[v]);
+                }
+                return change;
+            }));
+
+            next = current;
+            rank = updated;
+            iteration++;
+            listener.iteration(iteration, residual, System.nanoTime() - start);
+        }
+        return new Result(rank, iteration, residual, residual < tolerance);
+    }
+
+    @FunctionalInterface
+    private interface RangeFunction {
+        double apply(int from, int to);
+    }
+
+    /**
+     * Sums {@link RangeFunction} over a row range, split in halves down to {@value #MIN_RANGE} rows.
+     */
+    private static final class RangeSum extends RecursiveTask<Double> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final RangeFunction function;
+
+        RangeSum(int from, int to, RangeFunction function) {
+            this.from = from;
+            this.to = to;
+            this.function = function;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= MIN_RANGE) {
+                return function.apply(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RangeSum left = new RangeSum(from, mid, function);
+            left.fork();
+            double right = new RangeSum(mid, to, function).compute();
+            return right + left.join();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.atns.atns.graph;
+
+/**
+ * Operations on ascending, duplicate-free int ranges such as {@link Adjacency} rows.
+ *
+ * <p>Intersections walk the shorter range and gallop through the longer one (exponential probe,
+ * then binary search), so intersecting a row of m ids with a row of n ids costs
+ * O(m log(n / m)) rather than O(m + n) when the sizes differ a lot.</p>
+ */
+public final class SortedIntArrays {
+
+    private SortedIntArrays() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * @return the first index in {@code [from, to)} whose value is {@code >= key}, or {@code to}
+     */
+    public static int lowerBound(int[] array, int from, int to, int key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Like {@link #lowerBound} but probes {@code from, from + 1, from + 2, from + 4, ...} first,
+     * which is cheap when the answer is close to {@code from}.
+     */
+    public static int gallop(int[] array, int from, int to, int key) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < to && array[high] < key) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        return lowerBound(array, low, Math.min(high, to), key);
+    }
+
+    public static int intersectionSize(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo) {
+        return intersect(a, aFrom, aTo, b, bFrom, bTo, null, 0);
+    }
+
+    /**
+     * Intersects {@code a[aFrom, aTo)} with {@code b[bFrom, bTo)}, writing the first
+     * {@code out.length} common values (at most {@code maxOut}) into {@code out}.
+     *
+     * @param out destination, or {@code null} to only count
+     * @return the size of the whole intersection
+     */
+    public static int intersect(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] out, int maxOut) {
+        if (aTo - aFrom > bTo - bFrom) {
+            return intersect(b, bFrom, bTo, a, aFrom, aTo, out, maxOut);
+        }
+        int limit = out == null ? 0 : Math.min(out.length, maxOut);
+        int count = 0;
+        int j = bFrom;
+        for (int i = aFrom; i < aTo && j < bTo; i++) {
+            int value = a[i];
+            j = gallop(b, j, bTo, value);
+            if (j < bTo && b[j] == value) {
+                if (count < limit) {
+                    out[count] = value;
+                }
+                count++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
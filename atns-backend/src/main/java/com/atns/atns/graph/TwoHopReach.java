@@ -0,0 +1,83 @@
+package com.atns.atns.graph;
+
+import java.util.Arrays;
+
+/**
+ * Everything a viewer reaches within two follow steps, as a bitset over profile ids, from which
+ * the degree of any target up to 3 is answered without a search.
+ *
+ * <p>Degrees 1 and 2 are lookups: the viewer's own (sorted) following row and the bitset.
+ * Degree 3 holds exactly when one of the target's followers is within two steps, so it is a probe
+ * of the target's follower row against the bitset that stops at the first hit. Building costs one
+ * walk over the viewer's two-hop edges and {@code capacity / 8} bytes; every later lookup is
+ * independent of the size of the viewer's network.</p>
+ */
+public final class TwoHopReach {
+
+    /** Returned by {@link #degree} for targets more than three steps away or unreachable */
+    public static final int BEYOND = -1;
+
+    private final int viewer;
+    private final int[] firstHop;
+    private final long[] withinTwo;
+
+    private TwoHopReach(int viewer, int[] firstHop, long[] withinTwo) {
+        this.viewer = viewer;
+        this.firstHop = firstHop;
+        this.withinTwo = withinTwo;
+    }
+
+    /**
+     * @param following forward adjacency ({@code follower -> followed})
+     */
+    public static TwoHopReach of(Adjacency following, int viewer) {
+        int[] firstHop = following.neighbours(viewer);
+        long[] withinTwo = new long[(following.vertexCapacity() + 63) >>> 6];
+        for (int v : firstHop) {
+            withinTwo[v >>> 6] |= 1L << v;
+            int[] targets = following.targets(v);
+            for (int i = following.start(v, targets), end = following.end(v, targets); i < end; i++) {
+                int w = targets[i];
+                withinTwo[w >>> 6] |= 1L << w;
+            }
+        }
+        if (viewer >= 0 && viewer < following.vertexCapacity()) {
+            withinTwo[viewer >>> 6] &= ~(1L << viewer); // reached back through a cycle
+        }
+        return new TwoHopReach(viewer, firstHop, withinTwo);
+    }
+
+    /**
+     * @param followers reverse adjacency, for the degree-3 probe
+     * @return 0 for the viewer, 1 to 3, or {@link #BEYOND}
+     */
+    public int degree(Adjacency followers, int target) {
+        if (target == viewer) {
+            return 0;
+        }
+        if (Arrays.binarySearch(firstHop, target) >= 0) {
+            return 1;
+        }
+        if (isWithinTwo(target)) {
+            return 2;
+        }
+        int[] sources = followers.targets(target);
+        for (int i = followers.start(target, sources), end = followers.end(target, sources); i < end; i++) {
+            if (isWithinTwo(sources[i])) {
+                return 3;
+            }
+        }
+        return BEYOND;
+    }
+
+    /**
+     * @return the approximate heap footprint, for weighing cache entries
+     */
+    public long weightBytes() {
+        return 64 + 4L * firstHop.length + 8L * withinTwo.length;
+    }
+
+    private boolean isWithinTwo(int v) {
+        return v >= 0 && (v >>> 6) < withinTwo.length && (withinTwo[v >>> 6] & (1L << v)) != 0;
+    }
+}
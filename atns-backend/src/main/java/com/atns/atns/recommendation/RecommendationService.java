@@ -9,5 +9,6 @@ import java.util.List;
 public interface RecommendationService {
     List<RecommendedEventDto> recommendEvents(Integer profileId, int limit);
     List<RecommendedUserDto> recommendUsers(Integer profileId, int limit);
+    List<RecommendedUserDto> recommendPeopleYouMayKnow(Integer profileId, int limit);
     List<RecommendedJobDto> recommendJobs(Integer profileId, int limit);
 }
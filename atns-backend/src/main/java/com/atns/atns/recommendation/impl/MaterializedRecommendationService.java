@@ -0,0 +1,152 @@
+package com.atns.atns.recommendation.impl;
+
+import com.atns.atns.recommendation.RecommendationService;
+import com.atns.atns.recommendation.dto.RecommendedEventDto;
+import com.atns.atns.recommendation.dto.RecommendedJobDto;
+import com.atns.atns.recommendation.dto.RecommendedUserDto;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves recommendations from a per-profile store of precomputed results, so a request is a map
+ * lookup. Enabled with {@code app.recommendation.materialized.enabled=true}; it then replaces
+ * {@link RecommendationServiceImpl} behind {@link RecommendationService}.
+ *
+ * <p>Each list is computed once at {@code depth} entries the first time a profile asks for it and
+ * sliced per request. Entries older than {@code max-age} are recomputed in the background on the
+ * next read, and profiles reported by {@link RecommendationDirtyTracker} are recomputed first, at
+ * most {@code refresh-batch-size} per {@code refresh-interval-ms}. All recomputation runs on a
+ * bounded worker pool; when it is saturated the submitting thread does the work itself, which
+ * throttles the producer rather than dropping the refresh.</p>
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(name = "app.recommendation.materialized.enabled", havingValue = "true")
+public class MaterializedRecommendationService implements RecommendationService {
+
+    private final RecommendationServiceImpl delegate;
+    private final RecommendationDirtyTracker dirtyTracker;
+    private final int depth;
+    private final int refreshBatchSize;
+    private final ThreadPoolExecutor workers;
+
+    private final LoadingCache<Integer, List<RecommendedUserDto>> users;
+    private final LoadingCache<Integer, List<RecommendedJobDto>> jobs;
+    private final LoadingCache<Integer, List<RecommendedEventDto>> events;
+
+    public MaterializedRecommendationService(RecommendationServiceImpl delegate,
+                                             RecommendationDirtyTracker dirtyTracker,
+                                             @Value("${app.recommendation.materialized.depth:50}") int depth,
+                                             @Value("${app.recommendation.materialized.max-age-minutes:30}") long maxAgeMinutes,
+                                             @Value("${app.recommendation.materialized.max-profiles:10000}") long maxProfiles,
+                                             @Value("${app.recommendation.materialized.workers:2}") int workerCount,
+                                             @Value("${app.recommendation.materialized.refresh-batch-size:200}") int refreshBatchSize) {
+        this.delegate = delegate;
+        this.dirtyTracker = dirtyTracker;
+        this.depth = depth;
+        this.refreshBatchSize = refreshBatchSize;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, refreshBatchSize)),
+                new CustomizableThreadFactory("recommendation-refresh-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        Duration maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.users = store(maxAge, maxProfiles, profileId -> List.copyOf(delegate.recommendUsers(profileId, depth)));
+        this.jobs = store(maxAge, maxProfiles, profileId -> List.copyOf(delegate.recommendJobs(profileId, depth)));
+        this.events = store(maxAge, maxProfiles, profileId -> List.copyOf(delegate.recommendEvents(profileId, depth)));
+    }
+
+    private <V> LoadingCache<Integer, V> store(Duration maxAge, long maxProfiles, CacheLoader<Integer, V> loader) {
+        return Caffeine.newBuilder()
+                .refreshAfterWrite(maxAge)
+                .expireAfterAccess(maxAge.multipliedBy(4))
+                .maximumSize(maxProfiles)
+                .executor(workers)
+                .build(loader);
+    }
+
+    @Override
+    public List<RecommendedEventDto> recommendEvents(Integer profileId, int limit) {
+        if (limit > depth) {
+            return delegate.recommendEvents(profileId, limit);
+        }
+        return head(events.get(profileId), limit);
+    }
+
+    @Override
+    public List<RecommendedUserDto> recommendUsers(Integer profileId, int limit) {
+        if (limit > depth) {
+            return delegate.recommendUsers(profileId, limit);
+        }
+        return head(users.get(profileId), limit);
+    }
+
+    /**
+     * Not stored: two-hop counting on the follow graph is cheap, and the list should reflect a
+     * follow right away.
+     */
+    @Override
+    public List<RecommendedUserDto> recommendPeopleYouMayKnow(Integer profileId, int limit) {
+        return delegate.recommendPeopleYouMayKnow(profileId, limit);
+    }
+
+    @Override
+    public List<RecommendedJobDto> recommendJobs(Integer profileId, int limit) {
+        if (limit > depth) {
+            return delegate.recommendJobs(profileId, limit);
+        }
+        return head(jobs.get(profileId), limit);
+    }
+
+    /**
+     * Recomputes the stored lists of profiles whose inputs changed. Profiles that have nothing
+     * stored are skipped; they are computed on their first request anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.recommendation.materialized.refresh-interval-ms:30000}")
+    public void refreshDirty() {
+        List<Integer> dirty = dirtyTracker.drain(refreshBatchSize);
+        if (dirty.isEmpty()) {
+            return;
+        }
+        int refreshed = 0;
+        for (Integer profileId : dirty) {
+            refreshed += refreshIfPresent(users, profileId)
+                    + refreshIfPresent(jobs, profileId)
+                    + refreshIfPresent(events, profileId);
+        }
+        log.debug("Scheduled refresh of {} recommendation lists for {} dirty profiles", refreshed, dirty.size());
+    }
+
+    private static int refreshIfPresent(LoadingCache<Integer, ?> store, Integer profileId) {
+        if (store.getIfPresent(profileId) == null) {
+            return 0;
+        }
+        store.refresh(profileId);
+        return 1;
+    }
+
+    private static <T> List<T> head(List<T> list, int limit) {
+        return limit <= 0 ? List.of() : list.subList(0, Math.min(limit, list.size()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+package com.atns.atns.recommendation.impl;
+
+import com.atns.atns.graph.CommonNeighbourCounter;
+import com.atns.atns.recommendation.index.ProfileVector;
+import com.atns.atns.recommendation.index.SkillVectorIndex;
+import com.atns.atns.recommendation.util.SimilarityCalculator;
+import com.atns.atns.recommendation.util.TopKSelector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Top-k "people you may know": receives each two-hop profile with the number of the caller's
+ * followed profiles that follow it, and blends that count with the profile similarity of
+ * {@link UserCandidateSearch}, plus {@value #CLUSTER_WEIGHT} for candidates in the caller's
+ * follow-graph cluster. Similarity is at most 1, so once the top-k is full a candidate whose count
+ * and cluster cannot reach the k-th best score is dropped without looking at its profile.
+ */
+final class MutualCandidateRanker implements CommonNeighbourCounter.Sink {
+
+    private static final double MUTUAL_WEIGHT = 0.6;
+    private static final double PROFILE_WEIGHT = 0.4;
+    /** Bonus for sharing the caller's cluster; small next to the mutual count it usually echoes */
+    private static final double CLUSTER_WEIGHT = 0.1;
+    /** Common-neighbour count at which the mutual score reaches one half */
+    private static final int HALF_SATURATION = 3;
+
+    private final SkillVectorIndex index;
+    private final ProfileVector self;
+    private final IntPredicate followsSelf;
+    private final IntPredicate sameCluster;
+    private final TopKSelector top;
+
+    /**
+     * @param followsSelf whether a profile id follows the caller, which counts as a connection
+     * @param sameCluster whether a profile id is in the caller's cluster
+     */
+    MutualCandidateRanker(SkillVectorIndex index, ProfileVector self, int limit, IntPredicate followsSelf,
+                          IntPredicate sameCluster) {
+        this.index = index;
+        this.self = self;
+        this.followsSelf = followsSelf;
+        this.sameCluster = sameCluster;
+        this.top = new TopKSelector(limit);
+    }
+
+    @Override
+    public void accept(int profileId, int count) {
+        double mutualScore = (double) count / (count + HALF_SATURATION);
+        double clusterScore = sameCluster.test(profileId) ? CLUSTER_WEIGHT : 0.0;
+        if (mutualScore * MUTUAL_WEIGHT + PROFILE_WEIGHT + clusterScore < top.threshold()) {
+            return;
+        }
+        ProfileVector candidate = index.find(profileId);
+        if (candidate == null) {
+            return; // not indexed or deleted
+        }
+        int matches = SimilarityCalculator.intersectionSize(self.skills(), candidate.skills());
+        double profileScore = UserCandidateSearch.score(self, candidate, matches, followsSelf.test(profileId));
+        top.offer(profileId, mutualScore * MUTUAL_WEIGHT + profileScore * PROFILE_WEIGHT + clusterScore);
+    }
+
+    /**
+     * @return the selected profiles, highest score first
+     */
+    List<ScoredProfile> result() {
+        top.sortDescending();
+        List<ScoredProfile> result = new ArrayList<>(top.size());
+        for (int rank = 0; rank < top.size(); rank++) {
+            ProfileVector vector = index.find(top.id(rank));
+            if (vector != null) {
+                result.add(new ScoredProfile(vector, top.score(rank)));
+            }
+        }
+        return result;
+    }
+}
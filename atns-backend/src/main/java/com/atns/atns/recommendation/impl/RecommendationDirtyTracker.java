@@ -0,0 +1,54 @@
+package com.atns.atns.recommendation.impl;
+
+import com.atns.atns.utils.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the profiles whose recommendation inputs (skills, follows, location) changed, so the
+ * materialized store refreshes them ahead of its regular schedule. Nothing is recorded unless
+ * {@code app.recommendation.materialized.enabled} is set, since nothing would drain the set.
+ */
+@Component
+public class RecommendationDirtyTracker {
+
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.recommendation.materialized.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Marks the profiles dirty once the current transaction commits.
+     */
+    public void markDirty(Integer... profileIds) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            for (Integer profileId : profileIds) {
+                if (profileId != null) {
+                    dirty.add(profileId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes and returns up to {@code max} dirty profiles.
+     */
+    List<Integer> drain(int max) {
+        List<Integer> drained = new ArrayList<>(Math.min(max, dirty.size()));
+        Iterator<Integer> iterator = dirty.iterator();
+        while (drained.size() < max && iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+}
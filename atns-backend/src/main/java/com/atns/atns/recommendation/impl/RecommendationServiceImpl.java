@@ -1,26 +1,40 @@
 package com.atns.atns.recommendation.impl;
 
-import com.atns.atns.entity.Event;
 import com.atns.atns.entity.Job;
 import com.atns.atns.entity.Profile;
-import com.atns.atns.entity.Skill;
 import com.atns.atns.exception.ResourceNotFoundException;
+import com.atns.atns.graph.Adjacency;
+import com.atns.atns.graph.ClusterLabels;
+import com.atns.atns.graph.CommonNeighbourCounter;
+import com.atns.atns.graph.FollowGraph;
+import com.atns.atns.graph.InfluenceScores;
 import com.atns.atns.recommendation.RecommendationService;
 import com.atns.atns.recommendation.dto.RecommendedEventDto;
 import com.atns.atns.recommendation.dto.RecommendedJobDto;
 import com.atns.atns.recommendation.dto.RecommendedUserDto;
+import com.atns.atns.recommendation.index.IdfTable;
+import com.atns.atns.recommendation.index.JobSkillIndex;
+import com.atns.atns.recommendation.index.ProfileVector;
+import com.atns.atns.recommendation.index.SkillOrdinals;
+import com.atns.atns.recommendation.index.SkillVectorIndex;
 import com.atns.atns.recommendation.util.SimilarityCalculator;
+import com.atns.atns.recommendation.util.TopKSelector;
 import com.atns.atns.repo.EventRepo;
+import com.atns.atns.repo.FollowRepo;
 import com.atns.atns.repo.JobRepo;
 import com.atns.atns.repo.ProfileRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,132 +42,260 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RecommendationServiceImpl implements RecommendationService {
 
+    /** Keeps the SQL fallback of mutual-connection counting under the bind parameter limit */
+    private static final int FOLLOWED_CHUNK = 5000;
+
     private final ProfileRepo profileRepo;
     private final EventRepo eventRepo;
     private final JobRepo jobRepo;
+    private final FollowRepo followRepo;
+    private final SkillVectorIndex skillVectorIndex;
+    private final JobSkillIndex jobSkillIndex;
+    private final SkillOrdinals skillOrdinals;
+    private final ForkJoinPool recommendationScoringPool;
+    private final FollowGraph followGraph;
+    private final InfluenceScores influenceScores;
+    private final ClusterLabels clusterLabels;
+
+    /** Candidates in one search pass from which scoring is split across the scoring pool */
+    @Value("${app.recommendation.scoring.parallel-threshold:20000}")
+    private int parallelThreshold;
+
+    /** Initial look-ahead for event candidates, doubled while too few events are found */
+    @Value("${app.recommendation.events.window-days:30}")
+    private int eventWindowDays;
+
+    @Value("${app.recommendation.events.max-window-days:730}")
+    private int eventMaxWindowDays;
+
+    /** Upper bound on event rows scored per request, taken earliest first */
+    @Value("${app.recommendation.events.max-candidates:2000}")
+    private int eventMaxCandidates;
 
     @Transactional(readOnly = true)
     @Override
     public List<RecommendedEventDto> recommendEvents(Integer profileId, int limit) {
-        Profile profile = profileRepo.findById(profileId).orElseThrow(() -> {
+        ProfileVector self = skillVectorIndex.find(profileId);
+        if (self == null) {
             log.error("Profile with id {} not found!", profileId);
-            return new ResourceNotFoundException("Profile", profileId);
-        });
-        Set<String> userSkillNames = profile.getSkills().stream()
-                .map(Skill::getName)
-                .collect(Collectors.toSet());
-
-        List<Event> events = eventRepo.findUpcomingEvent(LocalDateTime.now(), Pageable.unpaged()).getContent();
-
-        return events.stream().map(event -> {
-                    Set<String> organizerSkills = event.getOrganizer().getSkills().stream()
-                            .map(Skill::getName)
-                            .collect(Collectors.toSet());
-
-                    // Skill similarity (weight: 0.5)
-                    double skillScore = SimilarityCalculator.jaccardSimilarity(userSkillNames, organizerSkills);
-
-                    // Category match (weight: 0.2)
-                    double categoryScore = 0.0;
-                    if (event.getCategory() != null) {
-                        for (String skill : userSkillNames) {
-                            if (skill.equalsIgnoreCase(event.getCategory())) {
-                                categoryScore = 1.0;
-                                break;
-                            }
-                        }
-                    }
-
-                    // Organizer connection (weight: 0.2)
-                    boolean isConnected = profile.getFollowing().stream()
-                            .anyMatch(f -> f.getFollowed().getId().equals(event.getOrganizer().getId()));
-                    double connectionScore = isConnected ? 1.0 : 0.0;
-
-                    // Upcoming event priority (weight: 0.1)
-                    long hoursUntilStart = java.time.Duration.between(java.time.LocalDateTime.now(), event.getStartTime()).toHours();
-                    double timeScore = hoursUntilStart <= 0 ? 0 : 1.0 / (1 + hoursUntilStart);
-
-                    // Weighted sum
-                    double totalScore = skillScore * 0.5 + categoryScore * 0.2 + connectionScore * 0.2 + timeScore * 0.1;
-
-                    totalScore = Math.max(0.05, totalScore);
-
-                    String location = event.getLocation() != null
-                            ? (event.getLocation().getAddress() != null ? event.getLocation().getAddress() : event.getLocation().getOnlineLink())
-                            : "";
-
-                    return RecommendedEventDto.builder()
-                            .eventId(event.getId())
-                            .eventName(event.getEventName())
-                            .category(event.getCategory())
-                            .startTime(event.getStartTime())
-                            .location(location)
-                            .score(totalScore)
-                            .build();
-                })
-                .sorted(Comparator.comparingDouble(RecommendedEventDto::getScore).reversed()
-                        .thenComparing(RecommendedEventDto::getStartTime))
-                .limit(limit)
-                .collect(Collectors.toList());
+            throw new ResourceNotFoundException("Profile", profileId);
+        }
+
+        // The caller's followed ids plus one scalar row per candidate event; organizer skills come
+        // from the resident index instead of each organizer's skill collection
+        int[] followedIds = toSortedArray(followRepo.findFollowedIdsByFollowerId(profileId));
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> events = findCandidateEvents(now, limit);
+
+        // Events arrive ordered by start time, so list positions double as the tie-breaker
+        TopKSelector top = new TopKSelector(limit);
+        for (int i = 0; i < events.size(); i++) {
+            top.offer(i, scoreEvent(self, followedIds, events.get(i), now));
+        }
+        top.sortDescending();
+
+        List<RecommendedEventDto> recommendations = new ArrayList<>(top.size());
+        for (int rank = 0; rank < top.size(); rank++) {
+            recommendations.add(toRecommendedEvent(events.get(top.id(rank)), top.score(rank)));
+        }
+        return recommendations;
+    }
+
+    /**
+     * Upcoming events in a look-ahead window that starts at {@code window-days} and doubles, each
+     * step reading only the newly covered range, until it holds a few times {@code limit} events,
+     * reaches {@code max-window-days} or {@code max-candidates} rows. Events further out score
+     * next to nothing on time and are left out, so a request no longer reads every future event.
+     */
+    private List<Object[]> findCandidateEvents(LocalDateTime now, int limit) {
+        int wanted = Math.min(eventMaxCandidates, Math.max(limit, 1) * 5);
+        List<Object[]> events = new ArrayList<>();
+        LocalDateTime covered = now;
+        int days = Math.max(1, eventWindowDays);
+        while (true) {
+            LocalDateTime until = now.plusDays(days);
+            events.addAll(eventRepo.findEventRowsStartingBetween(covered, until,
+                    PageRequest.of(0, eventMaxCandidates - events.size())));
+            covered = until;
+            if (events.size() >= wanted || days >= eventMaxWindowDays) {
+                return events;
+            }
+            days = Math.min(eventMaxWindowDays, days * 2);
+        }
+    }
+
+    /**
+     * @param event a row of {@link EventRepo#findEventRowsStartingBetween}
+     */
+    private double scoreEvent(ProfileVector self, int[] followedIds, Object[] event, LocalDateTime now) {
+        Integer organizerId = (Integer) event[1];
+        LocalDateTime startTime = (LocalDateTime) event[2];
+        String category = (String) event[3];
+
+        ProfileVector organizer = skillVectorIndex.find(organizerId);
+        int[] organizerSkills = organizer != null ? organizer.skills() : new int[0];
+
+        // Skill similarity (weight: 0.5)
+        double skillScore = SimilarityCalculator.jaccardSimilarity(self.skills(), organizerSkills);
+
+        // Category match (weight: 0.2)
+        double categoryScore = 0.0;
+        if (category != null) {
+            for (int skill : self.skills()) {
+                if (skillVectorIndex.skillName(skill).equalsIgnoreCase(category)) {
+                    categoryScore = 1.0;
+                    break;
+                }
+            }
+        }
+
+        // Organizer connection (weight: 0.2)
+        boolean isConnected = Arrays.binarySearch(followedIds, organizerId) >= 0;
+        double connectionScore = isConnected ? 1.0 : 0.0;
+
+        // Upcoming event priority (weight: 0.1)
+        long hoursUntilStart = java.time.Duration.between(now, startTime).toHours();
+        double timeScore = hoursUntilStart <= 0 ? 0 : 1.0 / (1 + hoursUntilStart);
+
+        // Weighted sum
+        double totalScore = skillScore * 0.5 + categoryScore * 0.2 + connectionScore * 0.2 + timeScore * 0.1;
+
+        return Math.max(0.05, totalScore);
+    }
+
+    private RecommendedEventDto toRecommendedEvent(Object[] event, double score) {
+        String address = (String) event[5];
+        String onlineLink = (String) event[6];
+        String location = address != null ? address : (onlineLink != null ? onlineLink : "");
+
+        return RecommendedEventDto.builder()
+                .eventId((Integer) event[0])
+                .eventName((String) event[4])
+                .category((String) event[3])
+                .startTime((LocalDateTime) event[2])
+                .location(location)
+                .score(score)
+                .build();
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<RecommendedUserDto> recommendUsers(Integer profileId, int limit) {
-        Profile profile = profileRepo.findById(profileId).orElseThrow(() -> {
+        ProfileVector self = skillVectorIndex.find(profileId);
+        if (self == null) {
             log.error("Profile with id {} not found!", profileId);
-            return new ResourceNotFoundException("Profile", profileId);
-        });
+            throw new ResourceNotFoundException("Profile", profileId);
+        }
+
+        // The caller's follow edges are fetched once; candidates are scored against the resident index
+        int[] followedIds = toSortedArray(followRepo.findFollowedIdsByFollowerId(profileId));
+        int[] followerIds = toSortedArray(followRepo.findFollowerIdsByFollowedId(profileId));
 
-        Set<String> userSkillNames = profile.getSkills().stream()
-                .map(Skill::getName)
-                .collect(Collectors.toSet());
-
-        List<Profile> allProfiles = profileRepo.findAll();
-
-        return allProfiles.stream()
-                .filter(p -> !p.getId().equals(profileId)) // exclude self
-                .map(p -> {
-                    Set<String> profileSkillNames = p.getSkills().stream()
-                            .map(Skill::getName)
-                            .collect(Collectors.toSet());
-
-
-                    // Skill similarity (weight: 0.5)
-                    double skillScore = SimilarityCalculator.jaccardSimilarity(userSkillNames, profileSkillNames);
-
-                    // Faculty match (weight: 0.2)
-                    double facultyScore = profile.getFaculty().equalsIgnoreCase(p.getFaculty()) ? 1.0 : 0.0;
-
-                    // Batch year closeness (weight: 0.2)
-                    int yearDiff = Math.abs(profile.getBatchYear() - p.getBatchYear());
-                    double batchScore = 1.0 / (1 + yearDiff); // smaller difference = higher score
-
-                    // Mutual connection (weight: 0.1)
-                    boolean isConnected = profile.getFollowing().stream().anyMatch(f -> f.getFollowed().getId().equals(p.getId())) ||
-                            profile.getFollowers().stream().anyMatch(f -> f.getFollower().getId().equals(p.getId()));
-                    double connectionScore = isConnected ? 1.0 : 0.0;
-
-                    // Weighted sum
-                    double totalScore = skillScore * 0.5 + facultyScore * 0.2 + batchScore * 0.2 + connectionScore * 0.1;
-
-                    totalScore = Math.max(0.05, totalScore);
-
-                    return RecommendedUserDto.builder()
-                            .profileId(p.getId())
-                            .firstName(p.getFirstName())
-                            .lastName(p.getLastName())
-                            .faculty(p.getFaculty())
-                            .skills(p.getSkills().stream().map(Skill::getName).collect(Collectors.toSet()))
-                            .score(totalScore)
-                            .profileImageUrl(p.getProfileImageUrl())
-                            .currentPosition(p.getCurrentPosition())
-                            .build();
-                })
-                .filter(u -> u.getScore() > 0.0)
-                .sorted(Comparator.comparingDouble(RecommendedUserDto::getScore).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<ScoredProfile> selected = new UserCandidateSearch(skillVectorIndex, self, limit, followedIds, followerIds,
+                influenceScores::normalized, recommendationScoringPool, parallelThreshold).run();
+
+        return toRecommendedUsers(selected);
+    }
+
+    /**
+     * Friends-of-friends: profiles followed by the profiles the caller follows, ranked by how many
+     * of them lead there blended with profile similarity and a small same-cluster bonus. Counting
+     * runs over the resident follow graph in a dense per-thread counter; profiles the caller already
+     * follows are excluded.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<RecommendedUserDto> recommendPeopleYouMayKnow(Integer profileId, int limit) {
+        ProfileVector self = skillVectorIndex.find(profileId);
+        if (self == null) {
+            log.error("Profile with id {} not found!", profileId);
+            throw new ResourceNotFoundException("Profile", profileId);
+        }
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        MutualCandidateRanker ranker;
+        int candidates;
+        IntPredicate sameCluster = clusterLabels.sameClusterAs(profileId);
+        if (followGraph.isReady()) {
+            FollowGraph.Snapshot graph = followGraph.snapshot();
+            Adjacency followers = graph.followers();
+            ranker = new MutualCandidateRanker(skillVectorIndex, self, limit,
+                    id -> followers.contains(profileId, id), sameCluster);
+            candidates = CommonNeighbourCounter.count(graph.following(), profileId, ranker);
+        } else {
+            int[] followerIds = toSortedArray(followRepo.findFollowerIdsByFollowedId(profileId));
+            ranker = new MutualCandidateRanker(skillVectorIndex, self, limit,
+                    id -> Arrays.binarySearch(followerIds, id) >= 0, sameCluster);
+            candidates = countMutualCandidates(profileId, ranker);
+        }
+        List<ScoredProfile> selected = ranker.result();
+        log.debug("Ranked {} two-hop candidates for profile {} in {} us",
+                candidates, profileId, (System.nanoTime() - start) / 1000);
+
+        return toRecommendedUsers(selected);
+    }
+
+    /**
+     * SQL counterpart of {@link CommonNeighbourCounter} while the follow graph is not loaded.
+     */
+    private int countMutualCandidates(Integer profileId, CommonNeighbourCounter.Sink sink) {
+        List<Integer> followed = followRepo.findFollowedIdsByFollowerId(profileId);
+        Set<Integer> excluded = new HashSet<>(followed);
+        excluded.add(profileId);
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int from = 0; from < followed.size(); from += FOLLOWED_CHUNK) {
+            List<Integer> chunk = followed.subList(from, Math.min(followed.size(), from + FOLLOWED_CHUNK));
+            for (Object[] row : followRepo.countFollowedByFollowerIdIn(chunk)) {
+                Integer candidateId = (Integer) row[0];
+                if (!excluded.contains(candidateId)) {
+                    counts.merge(candidateId, ((Long) row[1]).intValue(), Integer::sum);
+                }
+            }
+        }
+        counts.forEach(sink::accept);
+        return counts.size();
+    }
+
+    /**
+     * Hydrates only the selected profiles (one query); skill names come from the index.
+     */
+    private List<RecommendedUserDto> toRecommendedUsers(List<ScoredProfile> selected) {
+        Map<Integer, Profile> profiles = profileRepo.findAllById(selected.stream()
+                        .map(scoredProfile -> scoredProfile.vector().profileId())
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Profile::getId, p -> p));
+
+        List<RecommendedUserDto> recommendations = new ArrayList<>(selected.size());
+        for (ScoredProfile scoredProfile : selected) {
+            Profile p = profiles.get(scoredProfile.vector().profileId());
+            if (p == null) {
+                continue; // deleted since it was indexed
+            }
+            Set<String> skillNames = new HashSet<>();
+            for (int ordinal : scoredProfile.vector().skills()) {
+                skillNames.add(skillVectorIndex.skillName(ordinal));
+            }
+            recommendations.add(RecommendedUserDto.builder()
+                    .profileId(p.getId())
+                    .firstName(p.getFirstName())
+                    .lastName(p.getLastName())
+                    .faculty(p.getFaculty())
+                    .skills(skillNames)
+                    .score(scoredProfile.score())
+                    .profileImageUrl(p.getProfileImageUrl())
+                    .currentPosition(p.getCurrentPosition())
+                    .build());
+        }
+        return recommendations;
+    }
+
+    private static int[] toSortedArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).sorted().toArray();
     }
 
     @Transactional(readOnly = true)
@@ -164,92 +306,122 @@ public class RecommendationServiceImpl implements RecommendationService {
             return new ResourceNotFoundException("Profile", profileId);
         });
 
-        Set<String> userSkills = profile.getSkills().stream()
-                .map(Skill::getName)
-                .collect(Collectors.toSet());
+        ProfileVector self = skillVectorIndex.find(profileId);
+        int[] userSkills = self != null ? self.skills() : new int[0];
+        FollowedNetwork network = followedNetwork(profileId);
 
         // Get all active jobs
         List<Job> activeJobs = jobRepo.findActiveJobs();
 
-        // Calculate IDF scores for skills across all jobs
-        Map<String, Double> idfScores = calculateIdfScores(activeJobs);
-
-        return activeJobs.stream()
-                .map(job -> {
-                    Set<String> jobSkills = job.getRequiredSkills().stream()
-                            .map(Skill::getName)
-                            .collect(Collectors.toSet());
-
-                    // 1. Skill Match using Cosine Similarity with TF-IDF (Weight: 0.5)
-                    double skillScore = SimilarityCalculator.cosineSimilarityWithTFIDF(userSkills, jobSkills, idfScores);
-
-                    // 2. Location Preference (Weight: 0.2)
-                    double locationScore = calculateLocationScore(profile, job);
-
-                    // 3. Company Preference (Weight: 0.15)
-                    double companyScore = calculateCompanyScore(profile, job);
-
-                    // 4. Job Freshness (Weight: 0.1)
-                    double freshnessScore = calculateFreshnessScore(job);
-
-                    // 5. Experience Level Match (Weight: 0.05)
-                    double experienceScore = calculateExperienceScore(profile, job);
-
-                    // Weighted sum
-                    double totalScore = skillScore * 0.5 +
-                            locationScore * 0.2 +
-                            companyScore * 0.15 +
-                            freshnessScore * 0.1 +
-                            experienceScore * 0.05;
-
-                    // Apply boost for jobs posted by connections
-                    double connectionBoost = calculateConnectionBoost(profile, job);
-                    totalScore *= (1.0 + connectionBoost);
-
-                    // Ensure minimum score for diversity
-                    totalScore = Math.max(0.05, totalScore);
-
-                    return RecommendedJobDto.builder()
-                            .jobId(job.getId())
-                            .title(job.getTitle())
-                            .companyName(job.getCompanyName())
-                            .location(job.getLocation())
-                            .requiredSkills(jobSkills)
-                            .similarityScore(totalScore)
-                            .build();
-                })
-                .sorted(Comparator.comparingDouble(RecommendedJobDto::getSimilarityScore).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        // Maintained IDF snapshot and per-job skill ordinals; no requiredSkills collection is loaded for scoring
+        IdfTable idfTable = jobSkillIndex.idfTable();
+        IntToDoubleFunction idf = idfTable::idf;
+        double userNorm = SimilarityCalculator.weightedNorm(userSkills, idf);
+
+        TopKSelector top = new TopKSelector(limit);
+        for (int i = 0; i < activeJobs.size(); i++) {
+            Job job = activeJobs.get(i);
+            int[] jobSkills = jobSkills(job);
+            double skillScore = SimilarityCalculator.cosineSimilarity(userSkills, userNorm,
+                    jobSkills, SimilarityCalculator.weightedNorm(jobSkills, idf), idf);
+            top.offer(i, scoreJob(profile, network, skillScore, job));
+        }
+        top.sortDescending();
+
+        // Only the selected jobs are turned into DTOs
+        List<RecommendedJobDto> recommendations = new ArrayList<>(top.size());
+        for (int rank = 0; rank < top.size(); rank++) {
+            Job job = activeJobs.get(top.id(rank));
+            Set<String> requiredSkills = new HashSet<>();
+            for (int ordinal : jobSkills(job)) {
+                requiredSkills.add(jobSkillIndex.skillName(ordinal));
+            }
+            recommendations.add(RecommendedJobDto.builder()
+                    .jobId(job.getId())
+                    .title(job.getTitle())
+                    .companyName(job.getCompanyName())
+                    .location(job.getLocation())
+                    .requiredSkills(requiredSkills)
+                    .similarityScore(top.score(rank))
+                    .build());
+        }
+        return recommendations;
+    }
+
+    private int[] jobSkills(Job job) {
+        JobSkillIndex.JobEntry entry = jobSkillIndex.find(job.getId());
+        if (entry != null) {
+            return entry.skills();
+        }
+        // Created after the table snapshot was taken; fall back to the entity
+        return job.getRequiredSkills().stream()
+                .filter(skill -> skill.getId() != null)
+                .mapToInt(skill -> skillOrdinals.ordinalOf(skill.getId(), skill.getName()))
+                .sorted()
+                .distinct()
+                .toArray();
     }
 
     /**
-     * Calculate IDF (Inverse Document Frequency) scores for skills
-     * IDF = log(total_jobs / (number_of_jobs_with_skill + 1))
+     * Profiles the caller follows and their current positions, read once per job recommendation
+     * instead of walking {@link Profile#getFollowing()} for every job scored.
+     *
+     * @param followedIds ascending
+     * @param positions   lower-cased non-empty positions of the followed profiles
      */
-    private Map<String, Double> calculateIdfScores(List<Job> jobs) {
-        Map<String, Integer> skillFrequency = new HashMap<>();
-        int totalJobs = jobs.size();
-
-        // Count frequency of each skill across all jobs
-        for (Job job : jobs) {
-            Set<String> jobSkills = job.getRequiredSkills().stream()
-                    .map(Skill::getName)
-                    .collect(Collectors.toSet());
-
-            for (String skill : jobSkills) {
-                skillFrequency.put(skill, skillFrequency.getOrDefault(skill, 0) + 1);
+    private record FollowedNetwork(int[] followedIds, List<String> positions) {
+    }
+
+    private FollowedNetwork followedNetwork(Integer profileId) {
+        int[] followedIds = followGraph.isReady()
+                ? followGraph.snapshot().following().neighbours(profileId)
+                : toSortedArray(followRepo.findFollowedIdsByFollowerId(profileId));
+
+        List<String> positions = new ArrayList<>();
+        for (int from = 0; from < followedIds.length; from += FOLLOWED_CHUNK) {
+            List<Integer> chunk = Arrays.stream(followedIds, from, Math.min(followedIds.length, from + FOLLOWED_CHUNK))
+                    .boxed()
+                    .toList();
+            for (String position : profileRepo.findCurrentPositions(chunk)) {
+                if (!position.isBlank()) {
+                    positions.add(position.toLowerCase());
+                }
             }
         }
+        return new FollowedNetwork(followedIds, positions);
+    }
 
-        // Calculate IDF scores
-        Map<String, Double> idfScores = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : skillFrequency.entrySet()) {
-            double idf = Math.log((double) totalJobs / (entry.getValue() + 1));
-            idfScores.put(entry.getKey(), idf);
-        }
+    /**
+     * @param skillScore cosine similarity with TF-IDF between the user's and the job's skills
+     */
+    private double scoreJob(Profile profile, FollowedNetwork network, double skillScore, Job job) {
+        // 1. Skill Match using Cosine Similarity with TF-IDF (Weight: 0.5), computed by the caller
+
+        // 2. Location Preference (Weight: 0.2)
+        double locationScore = calculateLocationScore(profile, job);
+
+        // 3. Company Preference (Weight: 0.15)
+        double companyScore = calculateCompanyScore(network, job);
+
+        // 4. Job Freshness (Weight: 0.1)
+        double freshnessScore = calculateFreshnessScore(job);
+
+        // 5. Experience Level Match (Weight: 0.05)
+        double experienceScore = calculateExperienceScore(profile, job);
+
+        // Weighted sum
+        double totalScore = skillScore * 0.5 +
+                locationScore * 0.2 +
+                companyScore * 0.15 +
+                freshnessScore * 0.1 +
+                experienceScore * 0.05;
+
+        // Apply boost for jobs posted by connections
+        double connectionBoost = calculateConnectionBoost(network, job);
+        totalScore *= (1.0 + connectionBoost);
 
-        return idfScores;
+        // Ensure minimum score for diversity
+        return Math.max(0.05, totalScore);
     }
 
     private double calculateLocationScore(Profile profile, Job job) {
@@ -285,14 +457,11 @@ public class RecommendationServiceImpl implements RecommendationService {
     /**
      * Calculate company preference score based on user's network
      */
-    private double calculateCompanyScore(Profile profile, Job job) {
+    private double calculateCompanyScore(FollowedNetwork network, Job job) {
         // Check if user follows anyone who works at this company
-        boolean hasConnectionAtCompany = profile.getFollowing().stream()
-                .anyMatch(follow -> {
-                    Profile followed = follow.getFollowed();
-                    return followed.getCurrentPosition() != null &&
-                            followed.getCurrentPosition().toLowerCase().contains(job.getCompanyName().toLowerCase());
-                });
+        String companyName = job.getCompanyName().toLowerCase();
+        boolean hasConnectionAtCompany = network.positions().stream()
+                .anyMatch(position -> position.contains(companyName));
 
         return hasConnectionAtCompany ? 1.0 : 0.3;
     }
@@ -356,14 +525,13 @@ public class RecommendationServiceImpl implements RecommendationService {
     /**
      * Calculate connection boost - jobs posted by connections get a boost
      */
-    private double calculateConnectionBoost(Profile profile, Job job) {
+    private double calculateConnectionBoost(FollowedNetwork network, Job job) {
         if (job.getPostedBy() == null) {
             return 0.0;
         }
 
         // Check if the job poster is in user's network
-        boolean isConnected = profile.getFollowing().stream()
-                .anyMatch(follow -> follow.getFollowed().getId().equals(job.getPostedBy().getId()));
+        boolean isConnected = Arrays.binarySearch(network.followedIds(), job.getPostedBy().getId()) >= 0;
 
         return isConnected ? 0.2 : 0.0; // 20% boost for connections
     }
@@ -0,0 +1,6 @@
+package com.atns.atns.recommendation.impl;
+
+import com.atns.atns.recommendation.index.ProfileVector;
+
+record ScoredProfile(ProfileVector vector, double score) {
+}
@@ -0,0 +1,283 @@
+package com.atns.atns.recommendation.impl;
+
+import com.atns.atns.recommendation.index.ProfileVector;
+import com.atns.atns.recommendation.index.SkillVectorIndex;
+import com.atns.atns.recommendation.util.PostingListMerger;
+import com.atns.atns.recommendation.util.TopKSelector;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Top-k user recommendation over the inverted posting lists of {@link SkillVectorIndex}.
+ *
+ * <p>Only profiles that share a skill, are connected to the caller, or are within a batch-year
+ * window are scored in the first pass. Everything else is bounded MaxScore-style: a profile that
+ * is in none of the lists can only score through faculty and batch year, so the faculty list and
+ * wider batch windows are pulled in only while the current k-th best score is below what such
+ * a profile could still reach. The result is the same top-k as scoring the whole population.</p>
+ *
+ * <p>On top of profile similarity every candidate gets up to {@value #INFLUENCE_WEIGHT} for its
+ * normalized influence score. Since that term can lift any unseen profile, it is part of both
+ * bounds.</p>
+ *
+ * <p>Each pass first collects its unseen candidates, then scores them. A pass with at least
+ * {@code parallelThreshold} candidates is split into chunks scored on the given pool, each with
+ * its own local top-k, and the local heaps are merged; ties are broken by slot, so the result is
+ * identical to the sequential path.</p>
+ */
+final class UserCandidateSearch {
+
+    /** Initial +/- batch-year window; beyond it the batch score alone cannot exceed the 0.05 floor */
+    private static final int INITIAL_BATCH_WINDOW = 2;
+    private static final double FLOOR_SCORE = 0.05;
+    /** Weight of the normalized influence score, which lies in [0, 1] */
+    private static final double INFLUENCE_WEIGHT = 0.05;
+    /** Smallest chunk worth handing to another worker */
+    private static final int MIN_CHUNK = 4096;
+
+    private final SkillVectorIndex index;
+    private final ProfileVector self;
+    private final int limit;
+    private final int[] followedIds;
+    private final int[] followerIds;
+    private final IntToDoubleFunction influence;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private final TopKSelector top;
+    private ProfileVector[] vectors;
+    private long[] seen;
+    private int[] pendingSlots = new int[256];
+    private int[] pendingMatches = new int[256];
+    private int pending;
+
+    /**
+     * @param influence         normalized influence in {@code [0, 1]} by profile id
+     * @param pool              pool for scoring large passes in parallel, or {@code null} to stay sequential
+     * @param parallelThreshold number of candidates in a pass from which it is scored on {@code pool}
+     */
+    UserCandidateSearch(SkillVectorIndex index, ProfileVector self, int limit, int[] followedIds, int[] followerIds,
+                        IntToDoubleFunction influence, ForkJoinPool pool, int parallelThreshold) {
+        this.index = index;
+        this.self = self;
+        this.limit = limit;
+        this.followedIds = followedIds;
+        this.followerIds = followerIds;
+        this.influence = influence;
+        this.pool = pool;
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+        this.top = new TopKSelector(limit);
+    }
+
+    /**
+     * @return the best {@code limit} profiles, highest score first
+     */
+    List<ScoredProfile> run() {
+        if (limit <= 0) {
+            return List.of();
+        }
+        vectors = index.vectors();
+        seen = new long[(vectors.length + 63) >>> 6];
+        markSeen(index.slotOf(self.profileId()));
+
+        // Pass 1: skill postings (counted towards overlap), connections and the batch window
+        int window = INITIAL_BATCH_WINDOW;
+        int[] skills = self.skills();
+        List<int[]> lists = new ArrayList<>(skills.length + 2 * window + 2);
+        for (int skill : skills) {
+            lists.add(index.skillPosting(skill));
+        }
+        lists.add(connectedSlots());
+        for (int distance = 0; distance <= window; distance++) {
+            addBatchPostings(lists, distance);
+        }
+        PostingListMerger.merge(lists.toArray(new int[0][]), skills.length, this::consider);
+        scorePending();
+
+        // Pass 2: a faculty-only profile scores at most 0.2 + the batch score of the window edge + influence
+        if (self.faculty() >= 0 && (!isFull() || threshold() < 0.2 + batchBound(window) + INFLUENCE_WEIGHT)) {
+            for (int slot : index.facultyPosting(self.faculty())) {
+                consider(slot, 0);
+            }
+            scorePending();
+        }
+
+        // Pass 3: widen the batch window while an unseen profile could still enter the top-k
+        int maxDistance = index.maxBatchDistance(self.batchYear());
+        while (window < maxDistance && (!isFull() || threshold() < Math.max(FLOOR_SCORE, batchBound(window)) + INFLUENCE_WEIGHT)) {
+            int wider = Math.min(maxDistance, window * 2);
+            for (int distance = window + 1; distance <= wider; distance++) {
+                List<int[]> ring = new ArrayList<>(2);
+                addBatchPostings(ring, distance);
+                for (int[] posting : ring) {
+                    for (int slot : posting) {
+                        consider(slot, 0);
+                    }
+                }
+            }
+            scorePending();
+            window = wider;
+        }
+
+        top.sortDescending();
+        List<ScoredProfile> result = new ArrayList<>(top.size());
+        for (int rank = 0; rank < top.size(); rank++) {
+            result.add(new ScoredProfile(vectors[top.id(rank)], top.score(rank)));
+        }
+        return result;
+    }
+
+    /**
+     * Queues an unseen, live slot for scoring in the current pass.
+     */
+    private void consider(int slot, int matches) {
+        if (slot < 0 || slot >= vectors.length || isSeen(slot)) {
+            return;
+        }
+        markSeen(slot);
+        if (vectors[slot] == null) {
+            return; // deleted profile
+        }
+
+        if (pending == pendingSlots.length) {
+            pendingSlots = Arrays.copyOf(pendingSlots, pending * 2);
+            pendingMatches = Arrays.copyOf(pendingMatches, pending * 2);
+        }
+        pendingSlots[pending] = slot;
+        pendingMatches[pending] = matches;
+        pending++;
+    }
+
+    private void scorePending() {
+        if (pool != null && pending >= parallelThreshold) {
+            top.offerAll(pool.invoke(new ScoreChunk(0, pending, chunkSize())));
+        } else {
+            scoreRange(0, pending, top);
+        }
+        pending = 0;
+    }
+
+    private int chunkSize() {
+        int chunks = pool.getParallelism() * 4;
+        return Math.max(MIN_CHUNK, (pending + chunks - 1) / chunks);
+    }
+
+    private void scoreRange(int from, int to, TopKSelector selector) {
+        for (int i = from; i < to; i++) {
+            int slot = pendingSlots[i];
+            selector.offer(slot, score(vectors[slot], pendingMatches[i]));
+        }
+    }
+
+    /**
+     * Scores a range of the pending candidates into a local top-k, splitting it in halves
+     * down to {@code chunkSize} and merging the halves' heaps on the way back.
+     */
+    private final class ScoreChunk extends RecursiveTask<TopKSelector> {
+
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ScoreChunk(int from, int to, int chunkSize) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected TopKSelector compute() {
+            if (to - from <= chunkSize) {
+                TopKSelector local = new TopKSelector(limit);
+                scoreRange(from, to, local);
+                return local;
+            }
+            int mid = (from + to) >>> 1;
+            ScoreChunk left = new ScoreChunk(from, mid, chunkSize);
+            left.fork();
+            TopKSelector merged = new ScoreChunk(mid, to, chunkSize).compute();
+            merged.offerAll(left.join());
+            return merged;
+        }
+    }
+
+    private double score(ProfileVector candidate, int matches) {
+        boolean isConnected = Arrays.binarySearch(followedIds, candidate.profileId()) >= 0 ||
+                Arrays.binarySearch(followerIds, candidate.profileId()) >= 0;
+        return score(self, candidate, matches, isConnected)
+                + INFLUENCE_WEIGHT * influence.applyAsDouble(candidate.profileId());
+    }
+
+    /**
+     * Profile similarity of {@code candidate} to {@code self}, also used to rank mutual-connection
+     * suggestions.
+     *
+     * @param matches     number of skills the two profiles share
+     * @param isConnected whether either profile follows the other
+     */
+    static double score(ProfileVector self, ProfileVector candidate, int matches, boolean isConnected) {
+        // Skill similarity (weight: 0.5), overlap comes straight from the posting merge
+        double skillScore = matches == 0 ? 0.0
+                : (double) matches / (self.skills().length + candidate.skills().length - matches);
+
+        // Faculty match (weight: 0.2)
+        double facultyScore = self.faculty() >= 0 && self.faculty() == candidate.faculty() ? 1.0 : 0.0;
+
+        // Batch year closeness (weight: 0.2)
+        int yearDiff = Math.abs(self.batchYear() - candidate.batchYear());
+        double batchScore = 1.0 / (1 + yearDiff); // smaller difference = higher score
+
+        // Mutual connection (weight: 0.1)
+        double connectionScore = isConnected ? 1.0 : 0.0;
+
+        // Weighted sum
+        double totalScore = skillScore * 0.5 + facultyScore * 0.2 + batchScore * 0.2 + connectionScore * 0.1;
+
+        return Math.max(FLOOR_SCORE, totalScore);
+    }
+
+    /**
+     * Highest batch contribution of a profile outside a +/- {@code window} batch-year window.
+     */
+    private static double batchBound(int window) {
+        return 0.2 / (window + 2);
+    }
+
+    private int[] connectedSlots() {
+        return IntStream.concat(Arrays.stream(followedIds), Arrays.stream(followerIds))
+                .map(index::slotOf)
+                .filter(slot -> slot >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private void addBatchPostings(List<int[]> lists, int distance) {
+        lists.add(index.batchPosting(self.batchYear() - distance));
+        if (distance > 0) {
+            lists.add(index.batchPosting(self.batchYear() + distance));
+        }
+    }
+
+    private boolean isFull() {
+        return top.isFull();
+    }
+
+    private double threshold() {
+        return top.threshold();
+    }
+
+    private boolean isSeen(int slot) {
+        return (seen[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void markSeen(int slot) {
+        if (slot >= 0 && slot < vectors.length) {
+            seen[slot >>> 6] |= 1L << slot;
+        }
+    }
+}
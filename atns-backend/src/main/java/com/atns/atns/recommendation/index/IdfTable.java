@@ -0,0 +1,24 @@
+package com.atns.atns.recommendation.index;
+
+/**
+ * Immutable snapshot of inverse document frequencies over active jobs, keyed by skill ordinal.
+ * IDF = log(total_jobs / (number_of_jobs_with_skill + 1)); skills no active job requires weigh 1.0.
+ *
+ * @param totalJobs number of active jobs the snapshot was computed over
+ * @param weights   IDF weight per skill ordinal
+ */
+public record IdfTable(int totalJobs, double[] weights) {
+
+    public static IdfTable of(int totalJobs, int[] documentFrequency) {
+        double[] weights = new double[documentFrequency.length];
+        for (int ordinal = 0; ordinal < weights.length; ordinal++) {
+            int frequency = documentFrequency[ordinal];
+            weights[ordinal] = frequency == 0 ? 1.0 : Math.log((double) totalJobs / (frequency + 1));
+        }
+        return new IdfTable(totalJobs, weights);
+    }
+
+    public double idf(int skillOrdinal) {
+        return skillOrdinal < weights.length ? weights[skillOrdinal] : 1.0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.atns.atns.recommendation.index;
+
+import com.atns.atns.entity.Job;
+import com.atns.atns.entity.Skill;
+import com.atns.atns.repo.JobRepo;
+import com.atns.atns.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skill ordinals of every active job plus the maintained {@link IdfTable} over them.
+ *
+ * <p>Document frequencies live in a primitive array owned by the writer and are adjusted by
+ * delta whenever {@link com.atns.atns.service.impl.JobServiceImpl} creates, updates or deletes
+ * a job, and when a job expires. After every change a fresh immutable {@link IdfTable} is
+ * published through a volatile field, so readers never lock and always see one consistent
+ * snapshot.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobSkillIndex {
+
+    private static final int[] NO_SKILLS = new int[0];
+
+    private final JobRepo jobRepo;
+    private final SkillOrdinals skillOrdinals;
+
+    private final Map<Integer, JobEntry> entries = new ConcurrentHashMap<>();
+    private int[] documentFrequency = new int[0];
+    private int totalJobs;
+    private volatile IdfTable idfTable;
+
+    /**
+     * @param skills    ascending skill ordinals required by the job
+     * @param expiresAt expiry, or {@code null} if the job never expires
+     */
+    public record JobEntry(int jobId, int[] skills, LocalDateTime expiresAt) {
+    }
+
+    public IdfTable idfTable() {
+        IdfTable current = idfTable;
+        return current != null ? current : load();
+    }
+
+    /**
+     * @return the indexed entry of an active job, or {@code null}
+     */
+    public JobEntry find(Integer jobId) {
+        idfTable();
+        return jobId == null ? null : entries.get(jobId);
+    }
+
+    public String skillName(int ordinal) {
+        return skillOrdinals.name(ordinal);
+    }
+
+    /**
+     * Applies a created or updated job once the surrounding transaction commits.
+     * The entry is captured immediately, while the job's required skills can still be loaded.
+     */
+    public void index(Job job) {
+        if (job == null || job.getId() == null) {
+            return;
+        }
+        Integer jobId = job.getId();
+        JobEntry entry = isActive(job.getExpiresAt(), LocalDateTime.now())
+                ? new JobEntry(jobId, toOrdinals(job.getRequiredSkills()), job.getExpiresAt())
+                : null;
+
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                if (idfTable == null) {
+                    return; // the initial load will read the committed state
+                }
+                JobEntry previous = entry != null ? entries.put(jobId, entry) : entries.remove(jobId);
+                apply(previous, entry);
+            }
+        });
+    }
+
+    /**
+     * Drops a deleted job once the surrounding transaction commits.
+     */
+    public void remove(Integer jobId) {
+        if (jobId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                JobEntry previous = idfTable == null ? null : entries.remove(jobId);
+                if (previous != null) {
+                    apply(previous, null);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendation.job-expiry-sweep-ms:60000}")
+    public synchronized void evictExpired() {
+        if (idfTable == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int evicted = 0;
+        Iterator<JobEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            JobEntry entry = iterator.next();
+            if (!isActive(entry.expiresAt(), now)) {
+                iterator.remove();
+                adjust(entry.skills(), -1);
+                totalJobs--;
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            publish();
+            log.info("Evicted {} expired jobs from the IDF table", evicted);
+        }
+    }
+
+    private void apply(JobEntry previous, JobEntry current) {
+        if (previous != null) {
+            adjust(previous.skills(), -1);
+            totalJobs--;
+        }
+        if (current != null) {
+            adjust(current.skills(), 1);
+            totalJobs++;
+        }
+        publish();
+    }
+
+    private void adjust(int[] skills, int delta) {
+        for (int ordinal : skills) {
+            if (ordinal >= documentFrequency.length) {
+                documentFrequency = Arrays.copyOf(documentFrequency, Math.max(ordinal + 1, skillOrdinals.size()));
+            }
+            documentFrequency[ordinal] += delta;
+        }
+    }
+
+    private void publish() {
+        idfTable = IdfTable.of(totalJobs, documentFrequency);
+    }
+
+    private synchronized IdfTable load() {
+        if (idfTable != null) {
+            return idfTable;
+        }
+        long start = System.currentTimeMillis();
+
+        Map<Integer, List<Integer>> skillsByJob = new HashMap<>();
+        for (Object[] row : jobRepo.findActiveJobSkillPairs()) {
+            int ordinal = skillOrdinals.ordinalOf((Integer) row[1], (String) row[2]);
+            skillsByJob.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add(ordinal);
+        }
+
+        documentFrequency = new int[skillOrdinals.size()];
+        totalJobs = 0;
+        for (Object[] row : jobRepo.findActiveJobExpiries()) {
+            Integer jobId = (Integer) row[0];
+            List<Integer> ordinals = skillsByJob.get(jobId);
+            int[] skills = ordinals == null ? NO_SKILLS
+                    : ordinals.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+            JobEntry entry = new JobEntry(jobId, skills, (LocalDateTime) row[1]);
+            entries.put(jobId, entry);
+            adjust(skills, 1);
+            totalJobs++;
+        }
+
+        publish();
+        log.info("Built job IDF table: {} active jobs, {} skills in {} ms",
+                totalJobs, documentFrequency.length, System.currentTimeMillis() - start);
+        return idfTable;
+    }
+
+    private int[] toOrdinals(Set<Skill> skills) {
+        if (skills == null || skills.isEmpty()) {
+            return NO_SKILLS;
+        }
+        return skills.stream()
+                .filter(skill -> skill.getId() != null)
+                .mapToInt(skill -> skillOrdinals.ordinalOf(skill.getId(), skill.getName()))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static boolean isActive(LocalDateTime expiresAt, LocalDateTime now) {
+        return expiresAt == null || expiresAt.isAfter(now);
+    }
+}
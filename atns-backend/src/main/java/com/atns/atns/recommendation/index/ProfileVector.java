@@ -0,0 +1,12 @@
+package com.atns.atns.recommendation.index;
+
+/**
+ * Compact, immutable view of the profile attributes the recommender scores on.
+ *
+ * @param profileId profile primary key
+ * @param skills    ascending, duplicate-free skill ordinals (see {@link SkillOrdinals})
+ * @param faculty   faculty ordinal (case-insensitive), -1 when unknown
+ * @param batchYear graduation batch year
+ */
+public record ProfileVector(int profileId, int[] skills, int faculty, int batchYear) {
+}
@@ -0,0 +1,75 @@
+package com.atns.atns.recommendation.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary mapping skill ids to dense int ordinals (0..size-1).
+ * Ordinals are never reused, so they can safely index primitive arrays shared by the
+ * recommendation indexes.
+ */
+@Component
+public class SkillOrdinals {
+
+    private final Map<Integer, Integer> ordinalBySkillId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ordinalByName = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private volatile int size;
+
+    /**
+     * Returns the ordinal for the skill, assigning the next free one on first sight.
+     */
+    public int ordinalOf(Integer skillId, String name) {
+        Integer existing = ordinalBySkillId.get(skillId);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            existing = ordinalBySkillId.get(skillId);
+            if (existing != null) {
+                return existing;
+            }
+            int ordinal = size;
+            String[] current = names;
+            if (ordinal == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[ordinal] = name;
+            names = current;
+            size = ordinal + 1;
+            if (name != null) {
+                ordinalByName.putIfAbsent(name.toLowerCase(Locale.ROOT), ordinal);
+            }
+            ordinalBySkillId.put(skillId, ordinal);
+            return ordinal;
+        }
+    }
+
+    /**
+     * @return the ordinal of an already known skill id, or -1
+     */
+    public int find(Integer skillId) {
+        Integer ordinal = skillId == null ? null : ordinalBySkillId.get(skillId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Case-insensitive lookup by skill name, or -1 if unknown.
+     */
+    public int findByName(String name) {
+        Integer ordinal = name == null ? null : ordinalByName.get(name.toLowerCase(Locale.ROOT));
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public String name(int ordinal) {
+        return names[ordinal];
+    }
+
+    public int size() {
+        return size;
+    }
+}
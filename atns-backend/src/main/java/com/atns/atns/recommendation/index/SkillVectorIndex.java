@@ -0,0 +1,301 @@
+package com.atns.atns.recommendation.index;
+
+import com.atns.atns.entity.Profile;
+import com.atns.atns.entity.Skill;
+import com.atns.atns.repo.ProfileRepo;
+import com.atns.atns.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resident index of every profile's skill vector, used to score recommendations without
+ * touching JPA. It is built lazily from two scalar queries on first use and then kept up to
+ * date by {@link com.atns.atns.service.impl.ProfileServiceImpl}.
+ *
+ * <p>Each profile occupies a fixed slot in {@link #vectors()}. Slots are never reused; a deleted
+ * profile leaves a {@code null} tombstone. The slot array grows by doubling, so its tail past the
+ * used slots is {@code null} as well. {@link ProfileVector} is immutable, so readers can iterate a
+ * slot array concurrently with writers and always see whole vectors.</p>
+ *
+ * <p>Changes are applied once the surrounding transaction commits, so recommendations never see a
+ * profile that was rolled back.</p>
+ *
+ * <p>Inverted posting lists (skill ordinal, faculty ordinal and batch year to ascending slots)
+ * let callers pull only the profiles that can score well instead of scanning every slot.
+ * Posting lists are replaced copy-on-write, so a reader always sees a complete sorted array.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SkillVectorIndex {
+
+    private static final int[] NO_SKILLS = new int[0];
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final ProfileRepo profileRepo;
+    private final SkillOrdinals skillOrdinals;
+
+    private final Map<Integer, Integer> slotByProfileId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> facultyOrdinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextFacultyOrdinal = new AtomicInteger();
+    private final Map<Integer, int[]> skillPostings = new ConcurrentHashMap<>();
+    private final Map<Integer, int[]> facultyPostings = new ConcurrentHashMap<>();
+    private final Map<Integer, int[]> batchPostings = new ConcurrentHashMap<>();
+    private volatile ProfileVector[] vectors;
+    /** Slots handed out so far; guarded by {@code this} */
+    private int size;
+
+    /**
+     * @return the slot array; entries may be {@code null} for deleted profiles and unused capacity
+     */
+    public ProfileVector[] vectors() {
+        ProfileVector[] current = vectors;
+        return current != null ? current : load();
+    }
+
+    /**
+     * @return the vector for the given profile, or {@code null} if it is not indexed
+     */
+    public ProfileVector find(Integer profileId) {
+        ProfileVector[] current = vectors();
+        Integer slot = profileId == null ? null : slotByProfileId.get(profileId);
+        return slot == null || slot >= current.length ? null : current[slot];
+    }
+
+    /**
+     * @return the slot of the profile in {@link #vectors()}, or -1 if it is not indexed
+     */
+    public int slotOf(Integer profileId) {
+        vectors();
+        Integer slot = profileId == null ? null : slotByProfileId.get(profileId);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return ascending slots of the profiles having the skill
+     */
+    public int[] skillPosting(int skillOrdinal) {
+        vectors();
+        return skillPostings.getOrDefault(skillOrdinal, NO_SLOTS);
+    }
+
+    /**
+     * @return ascending slots of the profiles in the faculty
+     */
+    public int[] facultyPosting(int facultyOrdinal) {
+        vectors();
+        return facultyPostings.getOrDefault(facultyOrdinal, NO_SLOTS);
+    }
+
+    /**
+     * @return ascending slots of the profiles of the batch year
+     */
+    public int[] batchPosting(int batchYear) {
+        vectors();
+        return batchPostings.getOrDefault(batchYear, NO_SLOTS);
+    }
+
+    /**
+     * @return the largest distance between {@code batchYear} and any indexed batch year
+     */
+    public int maxBatchDistance(int batchYear) {
+        vectors();
+        int max = 0;
+        for (Integer year : batchPostings.keySet()) {
+            max = Math.max(max, Math.abs(year - batchYear));
+        }
+        return max;
+    }
+
+    public String skillName(int ordinal) {
+        return skillOrdinals.name(ordinal);
+    }
+
+    /**
+     * Inserts or replaces the vector of a freshly saved profile once the surrounding transaction
+     * commits. The vector is captured immediately, while the profile's skills can still be loaded.
+     */
+    public void index(Profile profile) {
+        if (profile == null || profile.getId() == null) {
+            return;
+        }
+        ProfileVector vector = new ProfileVector(profile.getId(), toOrdinals(profile.getSkills()),
+                facultyOrdinal(profile.getFaculty()), Optional.ofNullable(profile.getBatchYear()).orElse(0));
+
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                if (vectors == null) {
+                    return; // the initial load will read the committed state
+                }
+                put(vector);
+            }
+            log.debug("Indexed skill vector of profile {} ({} skills)", vector.profileId(), vector.skills().length);
+        });
+    }
+
+    /**
+     * Leaves a tombstone in the slot of a deleted profile once the surrounding transaction commits.
+     */
+    public void remove(Integer profileId) {
+        if (profileId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                Integer slot = vectors == null ? null : slotByProfileId.get(profileId);
+                if (slot != null && vectors[slot] != null) {
+                    unpost(slot, vectors[slot]);
+                    vectors[slot] = null;
+                }
+            }
+        });
+    }
+
+    private void put(ProfileVector vector) {
+        Integer slot = slotByProfileId.get(vector.profileId());
+        if (slot != null) {
+            if (vectors[slot] != null) {
+                unpost(slot, vectors[slot]);
+            }
+            vectors[slot] = vector;
+            post(slot, vector);
+            return;
+        }
+        int newSlot = size++;
+        if (newSlot == vectors.length) {
+            // Doubling keeps appends amortized O(1); readers of the old array just miss the new slot
+            vectors = Arrays.copyOf(vectors, Math.max(16, newSlot * 2));
+        }
+        vectors[newSlot] = vector;
+        slotByProfileId.put(vector.profileId(), newSlot);
+        post(newSlot, vector);
+    }
+
+    private void post(int slot, ProfileVector vector) {
+        for (int skill : vector.skills()) {
+            skillPostings.compute(skill, (key, slots) -> insert(slots, slot));
+        }
+        facultyPostings.compute(vector.faculty(), (key, slots) -> insert(slots, slot));
+        batchPostings.compute(vector.batchYear(), (key, slots) -> insert(slots, slot));
+    }
+
+    private void unpost(int slot, ProfileVector vector) {
+        for (int skill : vector.skills()) {
+            skillPostings.computeIfPresent(skill, (key, slots) -> delete(slots, slot));
+        }
+        facultyPostings.computeIfPresent(vector.faculty(), (key, slots) -> delete(slots, slot));
+        batchPostings.computeIfPresent(vector.batchYear(), (key, slots) -> delete(slots, slot));
+    }
+
+    private static int[] insert(int[] slots, int slot) {
+        if (slots == null) {
+            return new int[]{slot};
+        }
+        int at = Arrays.binarySearch(slots, slot);
+        if (at >= 0) {
+            return slots;
+        }
+        at = -at - 1;
+        int[] copy = new int[slots.length + 1];
+        System.arraycopy(slots, 0, copy, 0, at);
+        copy[at] = slot;
+        System.arraycopy(slots, at, copy, at + 1, slots.length - at);
+        return copy;
+    }
+
+    /**
+     * @return the posting list without {@code slot}, or {@code null} to drop an emptied list
+     */
+    private static int[] delete(int[] slots, int slot) {
+        int at = Arrays.binarySearch(slots, slot);
+        if (at < 0) {
+            return slots;
+        }
+        if (slots.length == 1) {
+            return null;
+        }
+        int[] copy = new int[slots.length - 1];
+        System.arraycopy(slots, 0, copy, 0, at);
+        System.arraycopy(slots, at + 1, copy, at, slots.length - at - 1);
+        return copy;
+    }
+
+    private synchronized ProfileVector[] load() {
+        if (vectors != null) {
+            return vectors;
+        }
+        long start = System.currentTimeMillis();
+
+        Map<Integer, List<Integer>> skillsByProfile = new HashMap<>();
+        for (Object[] row : profileRepo.findProfileSkillPairs()) {
+            int ordinal = skillOrdinals.ordinalOf((Integer) row[1], (String) row[2]);
+            skillsByProfile.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add(ordinal);
+        }
+
+        List<Object[]> attributes = profileRepo.findRecommendationAttributes();
+        ProfileVector[] loaded = new ProfileVector[attributes.size()];
+        for (int slot = 0; slot < loaded.length; slot++) {
+            Object[] row = attributes.get(slot);
+            Integer profileId = (Integer) row[0];
+            List<Integer> ordinals = skillsByProfile.get(profileId);
+            int[] skills = ordinals == null ? NO_SKILLS
+                    : ordinals.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+            loaded[slot] = new ProfileVector(profileId, skills, facultyOrdinal((String) row[1]),
+                    row[2] == null ? 0 : (Integer) row[2]);
+            slotByProfileId.put(profileId, slot);
+        }
+        buildPostings(loaded);
+
+        size = loaded.length;
+        vectors = loaded;
+        log.info("Built skill vector index: {} profiles, {} skills in {} ms",
+                loaded.length, skillOrdinals.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    private void buildPostings(ProfileVector[] loaded) {
+        Map<Integer, List<Integer>> bySkill = new HashMap<>();
+        Map<Integer, List<Integer>> byFaculty = new HashMap<>();
+        Map<Integer, List<Integer>> byBatch = new HashMap<>();
+        // Slots are visited in ascending order, so every list comes out sorted
+        for (int slot = 0; slot < loaded.length; slot++) {
+            ProfileVector vector = loaded[slot];
+            for (int skill : vector.skills()) {
+                bySkill.computeIfAbsent(skill, key -> new ArrayList<>()).add(slot);
+            }
+            byFaculty.computeIfAbsent(vector.faculty(), key -> new ArrayList<>()).add(slot);
+            byBatch.computeIfAbsent(vector.batchYear(), key -> new ArrayList<>()).add(slot);
+        }
+        bySkill.forEach((key, slots) -> skillPostings.put(key, toArray(slots)));
+        byFaculty.forEach((key, slots) -> facultyPostings.put(key, toArray(slots)));
+        byBatch.forEach((key, slots) -> batchPostings.put(key, toArray(slots)));
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int[] toOrdinals(Set<Skill> skills) {
+        if (skills == null || skills.isEmpty()) {
+            return NO_SKILLS;
+        }
+        return skills.stream()
+                .filter(skill -> skill.getId() != null)
+                .mapToInt(skill -> skillOrdinals.ordinalOf(skill.getId(), skill.getName()))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private int facultyOrdinal(String faculty) {
+        if (faculty == null) {
+            return -1;
+        }
+        return facultyOrdinals.computeIfAbsent(faculty.toLowerCase(Locale.ROOT), key -> nextFacultyOrdinal.getAndIncrement());
+    }
+}
@@ -0,0 +1,80 @@
+package com.atns.atns.recommendation.util;
+
+/**
+ * K-way merge of ascending, duplicate-free int posting lists.
+ * Every distinct id is reported once, together with the number of "counted" lists it appears in,
+ * which for skill posting lists is exactly the skill overlap with the query.
+ */
+public final class PostingListMerger {
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int id, int matches);
+    }
+
+    private PostingListMerger() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * @param lists        posting lists; {@code null} entries are ignored
+     * @param countedLists the first {@code countedLists} lists contribute to the match count,
+     *                     the rest only contribute candidates
+     */
+    public static void merge(int[][] lists, int countedLists, Visitor visitor) {
+        int[] heap = new int[lists.length];
+        int[] positions = new int[lists.length];
+        int size = 0;
+        for (int i = 0; i < lists.length; i++) {
+            if (lists[i] != null && lists[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, size, i, lists, positions);
+        }
+
+        while (size > 0) {
+            int id = head(heap[0], lists, positions);
+            int matches = 0;
+            // Pop every list currently positioned on this id
+            while (size > 0 && head(heap[0], lists, positions) == id) {
+                int list = heap[0];
+                if (list < countedLists) {
+                    matches++;
+                }
+                if (++positions[list] == lists[list].length) {
+                    heap[0] = heap[--size];
+                }
+                if (size > 0) {
+                    siftDown(heap, size, 0, lists, positions);
+                }
+            }
+            visitor.visit(id, matches);
+        }
+    }
+
+    private static int head(int list, int[][] lists, int[] positions) {
+        return lists[list][positions[list]];
+    }
+
+    private static void siftDown(int[] heap, int size, int index, int[][] lists, int[] positions) {
+        int list = heap[index];
+        int value = head(list, lists, positions);
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && head(heap[child + 1], lists, positions) < head(heap[child], lists, positions)) {
+                child++;
+            }
+            if (head(heap[child], lists, positions) >= value) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = list;
+    }
+}
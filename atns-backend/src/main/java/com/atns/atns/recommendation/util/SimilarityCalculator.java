@@ -1,10 +1,21 @@
 package com.atns.atns.recommendation.util;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Similarity measures used by the recommenders.
+ *
+ * <p>The primitive overloads work on ascending, duplicate-free {@code int[]} ordinals (merge walk)
+ * or on {@code long[]} bitsets (popcount) and allocate nothing; they are the hot path, called once
+ * per candidate per request. The {@code Set}-based methods are thin adapters kept for callers that
+ * still hold names, and also avoid building intermediate sets.</p>
+ */
 public class SimilarityCalculator {
+
+    private static final IntToDoubleFunction UNIT_WEIGHT = ordinal -> 1.0;
+
     /**
      * Calculates Jaccard similarity between two sets.
      * Returns a value between 0.0 and 1.0
@@ -14,13 +25,76 @@ public class SimilarityCalculator {
             return 0.0;
         }
 
-        Set<T> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
+        int intersection = overlapScore(set1, set2);
+        return (double) intersection / (double) (set1.size() + set2.size() - intersection);
+    }
+
+    /**
+     * Jaccard similarity over two ascending, duplicate-free int arrays (e.g. skill ordinals).
+     * Uses a merge walk, so nothing is allocated.
+     */
+    public static double jaccardSimilarity(int[] sorted1, int[] sorted2) {
+        if (sorted1 == null || sorted2 == null || sorted1.length == 0 || sorted2.length == 0) {
+            return 0.0;
+        }
+
+        int intersection = intersectionSize(sorted1, sorted2);
+        return (double) intersection / (double) (sorted1.length + sorted2.length - intersection);
+    }
+
+    /**
+     * Jaccard similarity over two bitsets (see {@link #toBitset(int[], int)}), using popcounts.
+     */
+    public static double jaccardSimilarity(long[] bits1, long[] bits2) {
+        if (bits1 == null || bits2 == null) {
+            return 0.0;
+        }
+
+        int intersection = 0;
+        int union = 0;
+        int shared = Math.min(bits1.length, bits2.length);
+        for (int i = 0; i < shared; i++) {
+            intersection += Long.bitCount(bits1[i] & bits2[i]);
+            union += Long.bitCount(bits1[i] | bits2[i]);
+        }
+        for (int i = shared; i < bits1.length; i++) {
+            union += Long.bitCount(bits1[i]);
+        }
+        for (int i = shared; i < bits2.length; i++) {
+            union += Long.bitCount(bits2[i]);
+        }
+
+        return union == 0 ? 0.0 : (double) intersection / (double) union;
+    }
 
-        Set<T> union = new HashSet<>(set1);
-        union.addAll(set2);
+    /**
+     * Number of common elements of two ascending, duplicate-free int arrays
+     */
+    public static int intersectionSize(int[] sorted1, int[] sorted2) {
+        int i = 0, j = 0, count = 0;
+        while (i < sorted1.length && j < sorted2.length) {
+            if (sorted1[i] < sorted2[j]) {
+                i++;
+            } else if (sorted1[i] > sorted2[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
 
-        return (double) intersection.size() / (double) union.size();
+    /**
+     * Packs ordinals into a bitset wide enough for {@code universe} ordinals.
+     */
+    public static long[] toBitset(int[] ordinals, int universe) {
+        long[] bits = new long[(universe + 63) >>> 6];
+        for (int ordinal : ordinals) {
+            bits[ordinal >>> 6] |= 1L << ordinal;
+        }
+        return bits;
     }
 
     /**
@@ -29,10 +103,15 @@ public class SimilarityCalculator {
     public static <T> int overlapScore(Set<T> set1, Set<T> set2) {
         if (set1 == null || set2 == null) return 0;
 
-        Set<T> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
-
-        return intersection.size();
+        Set<T> smaller = set1.size() <= set2.size() ? set1 : set2;
+        Set<T> larger = smaller == set1 ? set2 : set1;
+        int count = 0;
+        for (T element : smaller) {
+            if (larger.contains(element)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -44,22 +123,8 @@ public class SimilarityCalculator {
             return 0.0;
         }
 
-        // Get all unique terms from both sets
-        Set<String> allTerms = new HashSet<>(set1);
-        allTerms.addAll(set2);
-
-        // Create vectors
-        double[] vector1 = new double[allTerms.size()];
-        double[] vector2 = new double[allTerms.size()];
-
-        int index = 0;
-        for (String term : allTerms) {
-            vector1[index] = set1.contains(term) ? 1.0 : 0.0;
-            vector2[index] = set2.contains(term) ? 1.0 : 0.0;
-            index++;
-        }
-
-        return cosineSimilarity(vector1, vector2);
+        // Binary vectors: dot product is the overlap, norms are the set sizes
+        return overlapScore(set1, set2) / Math.sqrt((double) set1.size() * set2.size());
     }
 
     /**
@@ -76,8 +141,8 @@ public class SimilarityCalculator {
 
         for (int i = 0; i < vectorA.length; i++) {
             dotProduct += vectorA[i] * vectorB[i];
-            normA += Math.pow(vectorA[i], 2);
-            normB += Math.pow(vectorB[i], 2);
+            normA += vectorA[i] * vectorA[i];
+            normB += vectorB[i] * vectorB[i];
         }
 
         if (normA == 0 || normB == 0) {
@@ -96,24 +161,86 @@ public class SimilarityCalculator {
             return 0.0;
         }
 
-        Set<String> allTerms = new HashSet<>(userSkills);
-        allTerms.addAll(jobSkills);
+        double dotProduct = 0.0;
+        double userNorm = 0.0;
+        for (String term : userSkills) {
+            double idf = idfScores.getOrDefault(term, 1.0); // Default to 1 if term not in IDF map
+            double squared = idf * idf;
+            userNorm += squared;
+            if (jobSkills.contains(term)) {
+                dotProduct += squared;
+            }
+        }
+        double jobNorm = 0.0;
+        for (String term : jobSkills) {
+            double idf = idfScores.getOrDefault(term, 1.0);
+            jobNorm += idf * idf;
+        }
+
+        if (userNorm == 0 || jobNorm == 0) {
+            return 0.0;
+        }
 
-        double[] userVector = new double[allTerms.size()];
-        double[] jobVector = new double[allTerms.size()];
+        return dotProduct / (Math.sqrt(userNorm) * Math.sqrt(jobNorm));
+    }
 
-        int index = 0;
-        for (String term : allTerms) {
-            double userTF = userSkills.contains(term) ? 1.0 : 0.0;
-            double jobTF = jobSkills.contains(term) ? 1.0 : 0.0;
+    /**
+     * Weighted cosine similarity of two binary term vectors given as ascending, duplicate-free
+     * int arrays (e.g. skill ordinals weighted by IDF). Equivalent to
+     * {@link #cosineSimilarityWithTFIDF} but computed in one merge walk without building vectors.
+     */
+    public static double cosineSimilarity(int[] sorted1, int[] sorted2, IntToDoubleFunction weight) {
+        if (sorted1 == null || sorted2 == null || sorted1.length == 0 || sorted2.length == 0) {
+            return 0.0;
+        }
 
-            double idf = idfScores.getOrDefault(term, 1.0); // Default to 1 if term not in IDF map
+        return cosineSimilarity(sorted1, weightedNorm(sorted1, weight), sorted2, weightedNorm(sorted2, weight), weight);
+    }
+
+    /**
+     * Weighted cosine similarity with precomputed norms (see {@link #weightedNorm}); only the
+     * intersection is walked. Lets a caller compute the query-side norm once per request.
+     */
+    public static double cosineSimilarity(int[] sorted1, double norm1, int[] sorted2, double norm2,
+                                          IntToDoubleFunction weight) {
+        if (sorted1 == null || sorted2 == null || norm1 == 0 || norm2 == 0) {
+            return 0.0;
+        }
+
+        double dotProduct = 0.0;
+        int i = 0, j = 0;
+        while (i < sorted1.length && j < sorted2.length) {
+            if (sorted1[i] < sorted2[j]) {
+                i++;
+            } else if (sorted1[i] > sorted2[j]) {
+                j++;
+            } else {
+                double w = weight.applyAsDouble(sorted1[i]);
+                dotProduct += w * w;
+                i++;
+                j++;
+            }
+        }
+
+        return dotProduct / (norm1 * norm2);
+    }
 
-            userVector[index] = userTF * idf;
-            jobVector[index] = jobTF * idf;
-            index++;
+    /**
+     * Euclidean norm of a binary term vector whose terms carry the given weights.
+     */
+    public static double weightedNorm(int[] sorted, IntToDoubleFunction weight) {
+        double squares = 0.0;
+        for (int ordinal : sorted) {
+            double w = weight.applyAsDouble(ordinal);
+            squares += w * w;
         }
+        return Math.sqrt(squares);
+    }
 
-        return cosineSimilarity(userVector, jobVector);
+    /**
+     * Unweighted cosine similarity over two ascending, duplicate-free int arrays.
+     */
+    public static double cosineSimilarity(int[] sorted1, int[] sorted2) {
+        return cosineSimilarity(sorted1, sorted2, UNIT_WEIGHT);
     }
 }
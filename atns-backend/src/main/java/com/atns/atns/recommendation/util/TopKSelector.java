@@ -0,0 +1,134 @@
+package com.atns.atns.recommendation.util;
+
+/**
+ * Bounded top-k selection over primitive (id, score) pairs.
+ * Keeps a min-heap of at most {@code k} entries in parallel arrays, so selecting from n
+ * candidates costs O(n log k) and allocates nothing per candidate.
+ *
+ * <p>Higher scores win; equal scores are broken in favour of the smaller id, which lets callers
+ * pass list positions as ids to keep the input order as a secondary sort key.</p>
+ */
+public final class TopKSelector {
+
+    private final int[] ids;
+    private final double[] scores;
+    private int size;
+    private boolean sorted;
+
+    public TopKSelector(int k) {
+        int capacity = Math.max(0, k);
+        this.ids = new int[capacity];
+        this.scores = new double[capacity];
+    }
+
+    /**
+     * @return {@code true} if the candidate is currently among the best k
+     */
+    public boolean offer(int id, double score) {
+        if (sorted) {
+            throw new IllegalStateException("Selector has already been sorted");
+        }
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return true;
+        }
+        if (size == 0 || !isBetter(id, score, ids[0], scores[0])) {
+            return false;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0, size);
+        return true;
+    }
+
+    /**
+     * Offers every entry selected by {@code other}. Because ties are broken by id, merging the
+     * local top-k of disjoint chunks yields exactly the top-k of their union.
+     */
+    public void offerAll(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i]);
+        }
+    }
+
+    public boolean isFull() {
+        return size == ids.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the lowest score still selected, or {@link Double#NEGATIVE_INFINITY} while not full
+     */
+    public double threshold() {
+        return isFull() && size > 0 ? scores[0] : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Orders the selection best-first in place; afterwards use {@link #id(int)} and {@link #score(int)}.
+     */
+    public TopKSelector sortDescending() {
+        if (!sorted) {
+            // Heap sort on the min-heap leaves the best entry at index 0
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            sorted = true;
+        }
+        return this;
+    }
+
+    public int id(int rank) {
+        return ids[rank];
+    }
+
+    public double score(int rank) {
+        return scores[rank];
+    }
+
+    private static boolean isBetter(int id, double score, int otherId, double otherScore) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBetter(ids[parent], scores[parent], ids[index], scores[index])) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int end) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= end) {
+                break;
+            }
+            if (child + 1 < end && isBetter(ids[child], scores[child], ids[child + 1], scores[child + 1])) {
+                child++;
+            }
+            if (!isBetter(ids[index], scores[index], ids[child], scores[child])) {
+                break;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -29,6 +29,21 @@ public interface EventRepo extends JpaRepository<Event, Integer> {
             """)
     List<Event> findEventsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    /**
+     * Scalar rows {@code (id, organizerId, startTime, category, eventName, address, onlineLink)} of
+     * active events starting in {@code (after, until]}, ordered by start time; everything event
+     * recommendations need, without loading the organizer or any lazy association.
+     */
+    @Query("""
+            SELECT e.id, e.organizer.id, e.startTime, e.category, e.eventName, e.location.address, e.location.onlineLink
+            FROM Event e
+            WHERE e.active = true AND e.startTime > :after AND e.startTime <= :until
+            ORDER BY e.startTime ASC, e.id ASC
+            """)
+    List<Object[]> findEventRowsStartingBetween(@Param("after") LocalDateTime after,
+                                                @Param("until") LocalDateTime until,
+                                                Pageable pageable);
+
     @Query("SELECT e FROM Event e WHERE e.profile.id = :organizerProfileId")
     Page<Event> findEventsByOrganizerProfileId(@Param("organizerProfileId") Integer organizerProfileId, Pageable pageable);
 
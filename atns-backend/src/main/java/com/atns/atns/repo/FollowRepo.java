@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,9 +23,50 @@ public interface FollowRepo extends JpaRepository<Follow, Integer> {
     @Query("SELECT f.follower FROM Follow f WHERE f.followed = :profile")
     Page<Profile> findByFollowed(@Param("profile") Profile profile, Pageable pageable);
 
+    /**
+     * Followers of a profile, most influential first; ties and unscored profiles fall back to id order
+     */
+    @Query(value = """
+        SELECT f.follower FROM Follow f
+        WHERE f.followed.id = :profileId
+        ORDER BY f.follower.influenceScore DESC, f.follower.id
+        """,
+        countQuery = "SELECT COUNT(f) FROM Follow f WHERE f.followed.id = :profileId")
+    Page<Profile> findFollowersByInfluence(@Param("profileId") Integer profileId, Pageable pageable);
+
     @Query("SELECT f.followed FROM Follow f WHERE f.follower = :profile")
     Page<Profile> findByFollower(@Param("profile") Profile profile, Pageable pageable);
 
+    /**
+     * Keyset pages of followers as {@code (follower, createdAt, followId)}, oldest first; pass the
+     * last row's {@code (createdAt, followId)} to seek past it without an offset
+     */
+    @Query("SELECT f.follower, f.createdAt, f.id FROM Follow f WHERE f.followed.id = :profileId ORDER BY f.createdAt, f.id")
+    List<Object[]> findFollowerPage(@Param("profileId") Integer profileId, Pageable pageable);
+
+    @Query("""
+        SELECT f.follower, f.createdAt, f.id FROM Follow f
+        WHERE f.followed.id = :profileId
+          AND (f.createdAt > :createdAt OR (f.createdAt = :createdAt AND f.id > :id))
+        ORDER BY f.createdAt, f.id
+        """)
+    List<Object[]> findFollowerPageAfter(@Param("profileId") Integer profileId, @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Keyset pages of followed profiles as {@code (followed, createdAt, followId)}, oldest first
+     */
+    @Query("SELECT f.followed, f.createdAt, f.id FROM Follow f WHERE f.follower.id = :profileId ORDER BY f.createdAt, f.id")
+    List<Object[]> findFollowingPage(@Param("profileId") Integer profileId, Pageable pageable);
+
+    @Query("""
+        SELECT f.followed, f.createdAt, f.id FROM Follow f
+        WHERE f.follower.id = :profileId
+          AND (f.createdAt > :createdAt OR (f.createdAt = :createdAt AND f.id > :id))
+        ORDER BY f.createdAt, f.id
+        """)
+    List<Object[]> findFollowingPageAfter(@Param("profileId") Integer profileId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Integer id, Pageable pageable);
 
     List<Follow> findAllByFollower(Profile profile);
     List<Follow> findAllByFollowed(Profile profile);
@@ -41,4 +84,84 @@ public interface FollowRepo extends JpaRepository<Follow, Integer> {
 
     @Query("SELECT f.followed.id FROM Follow f WHERE f.follower.id = :followerId")
     List<Integer> findFollowedIdsByFollowerId(@Param("followerId") Integer followerId, Pageable pageable);
+
+    @Query("SELECT f.followed.id FROM Follow f WHERE f.follower.id = :followerId")
+    List<Integer> findFollowedIdsByFollowerId(@Param("followerId") Integer followerId);
+
+    @Query("SELECT f.follower.id FROM Follow f WHERE f.followed.id = :followedId")
+    List<Integer> findFollowerIdsByFollowedId(@Param("followedId") Integer followedId);
+
+    /**
+     * Every follow edge as {@code (followerId, followedId)}, for building the in-memory graph
+     */
+    @Query("SELECT f.follower.id, f.followed.id FROM Follow f")
+    List<Object[]> findAllEdges();
+
+    /**
+     * Follow edges created at or after {@code since}, replayed on top of a follow graph snapshot
+     */
+    @Query("SELECT f.follower.id, f.followed.id FROM Follow f WHERE f.createdAt >= :since")
+    List<Object[]> findEdgesCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Number of distinct {@code (follower, followed)} pairs, i.e. edges of the follow graph
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT DISTINCT follower_id, followed_id FROM follows) edges", nativeQuery = true)
+    long countDistinctEdges();
+
+    /**
+     * Order-independent checksum of the distinct {@code (follower, followed)} pairs; must stay in
+     * step with {@code FollowGraph.edgeChecksum}
+     */
+    @Query(value = """
+        SELECT CAST(COALESCE(SUM(h), 0) % 2147483647 AS BIGINT) FROM (
+            SELECT (x * x % 2147483647 * 48271 + x) % 2147483647 AS h FROM (
+                SELECT (CAST(follower_id AS BIGINT) * 1000003 + followed_id) % 2147483647 AS x
+                FROM (SELECT DISTINCT follower_id, followed_id FROM follows) edges
+            ) keyed
+        ) hashed
+        """, nativeQuery = true)
+    long checksumDistinctEdges();
+
+    /**
+     * Distinct profiles followed by any profile of the frontier; one BFS level per call
+     */
+    @Query("SELECT DISTINCT f.followed.id FROM Follow f WHERE f.follower.id IN :frontier")
+    List<Integer> findDistinctFollowedIdsByFollowerIdIn(@Param("frontier") Collection<Integer> frontier);
+
+    /**
+     * Distinct profiles following any profile of the frontier; one reverse BFS level per call
+     */
+    @Query("SELECT DISTINCT f.follower.id FROM Follow f WHERE f.followed.id IN :frontier")
+    List<Integer> findDistinctFollowerIdsByFollowedIdIn(@Param("frontier") Collection<Integer> frontier);
+
+    /**
+     * Follow edges {@code (followerId, followedId)} leaving any profile of the frontier
+     */
+    @Query("SELECT f.follower.id, f.followed.id FROM Follow f WHERE f.follower.id IN :frontier")
+    List<Object[]> findEdgesFromFollowers(@Param("frontier") Collection<Integer> frontier);
+
+    /**
+     * Follow edges {@code (followerId, followedId)} entering any profile of the frontier
+     */
+    @Query("SELECT f.follower.id, f.followed.id FROM Follow f WHERE f.followed.id IN :frontier")
+    List<Object[]> findEdgesToFollowed(@Param("frontier") Collection<Integer> frontier);
+
+    /**
+     * Follow edges between {@code profileId} and any of {@code targetIds}, in either direction,
+     * as {@code (followerId, followedId)}; resolves a page of connection statuses in one query
+     */
+    @Query("""
+        SELECT f.follower.id, f.followed.id FROM Follow f
+        WHERE (f.follower.id = :profileId AND f.followed.id IN :targetIds)
+           OR (f.followed.id = :profileId AND f.follower.id IN :targetIds)
+        """)
+    List<Object[]> findEdgesBetween(@Param("profileId") Integer profileId,
+                                    @Param("targetIds") Collection<Integer> targetIds);
+
+    /**
+     * Profiles followed by any of {@code followerIds}, each with how many of them follow it
+     */
+    @Query("SELECT f.followed.id, COUNT(f) FROM Follow f WHERE f.follower.id IN :followerIds GROUP BY f.followed.id")
+    List<Object[]> countFollowedByFollowerIdIn(@Param("followerIds") Collection<Integer> followerIds);
 }
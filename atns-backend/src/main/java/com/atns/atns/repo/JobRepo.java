@@ -35,6 +35,16 @@ public interface JobRepo extends JpaRepository<Job, Integer> {
     @Query("SELECT j FROM Job j WHERE j.expiresAt IS NULL OR j.expiresAt > CURRENT_TIMESTAMP")
     Page<Job> findActiveJobs(Pageable pageable);
 
+    // Scalar projections used to build the job IDF table without loading entities
+    @Query("SELECT j.id, j.expiresAt FROM Job j WHERE j.expiresAt IS NULL OR j.expiresAt > CURRENT_TIMESTAMP")
+    List<Object[]> findActiveJobExpiries();
+
+    @Query("""
+            SELECT j.id, s.id, s.name FROM Job j JOIN j.requiredSkills s
+            WHERE j.expiresAt IS NULL OR j.expiresAt > CURRENT_TIMESTAMP
+            """)
+    List<Object[]> findActiveJobSkillPairs();
+
     List<Job> findByPostedById(Integer postedById);
     Page<Job> findByPostedById(Integer postedById, Pageable pageable);
 
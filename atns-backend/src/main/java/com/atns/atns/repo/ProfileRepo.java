@@ -8,6 +8,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -24,4 +27,36 @@ public interface ProfileRepo extends JpaRepository<Profile, Integer> {
     Page<Profile> findByCurrentPositionContainingIgnoreCase(String company, Pageable pageable);
     Page<Profile> findDistinctBySkills_NameContainingIgnoreCase(String skillName, Pageable pageable);
 
+    // Scalar projections used to build the in-memory recommendation index without loading entities
+    @Query("SELECT p.id, p.faculty, p.batchYear FROM Profile p ORDER BY p.id")
+    List<Object[]> findRecommendationAttributes();
+
+    @Query("SELECT p.id, s.id, s.name FROM Profile p JOIN p.skills s")
+    List<Object[]> findProfileSkillPairs();
+
+    // Stored follow counters as (id, followersCount, followingCount); pending deltas live in FollowCounters
+    @Query("SELECT p.id, p.followersCount, p.followingCount FROM Profile p WHERE p.id IN :ids")
+    List<Object[]> findFollowCounts(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT p.currentPosition FROM Profile p WHERE p.id IN :ids AND p.currentPosition IS NOT NULL")
+    List<String> findCurrentPositions(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Clusters of at least {@code minSize} profiles as {@code (clusterId, size)}, largest first
+     */
+    @Query(value = """
+            SELECT cluster_id, COUNT(*) AS size FROM profiles WHERE cluster_id IS NOT NULL
+            GROUP BY cluster_id HAVING COUNT(*) >= :minSize ORDER BY size DESC, cluster_id
+            """,
+            countQuery = """
+            SELECT COUNT(*) FROM (SELECT cluster_id FROM profiles WHERE cluster_id IS NOT NULL
+            GROUP BY cluster_id HAVING COUNT(*) >= :minSize) clusters
+            """,
+            nativeQuery = true)
+    Page<Object[]> findClusterSizes(@Param("minSize") long minSize, Pageable pageable);
+
+    Page<Profile> findByClusterId(Integer clusterId, Pageable pageable);
+
+    long countByClusterId(Integer clusterId);
+
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.atns.atns.repo;
+
+import com.atns.atns.entity.Unfollow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UnfollowRepo extends JpaRepository<Unfollow, Long> {
+
+    /**
+     * Unfollowed edges {@code (followerId, followedId)} deleted at or after {@code since}, replayed on
+     * top of a follow graph snapshot
+     */
+    @Query("SELECT u.followerId, u.followedId FROM Unfollow u WHERE u.deletedAt >= :since")
+    List<Object[]> findEdgesDeletedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Unfollow u WHERE u.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
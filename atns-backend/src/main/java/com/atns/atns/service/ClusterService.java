@@ -0,0 +1,17 @@
+package com.atns.atns.service;
+
+import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.cluster.ClusterDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ClusterService {
+    /**
+     * Clusters with at least {@code minSize} members, largest first.
+     */
+    Page<ClusterDto> getClusters(int minSize, Pageable pageable);
+
+    Page<ProfileDto> getClusterMembers(Integer clusterId, Pageable pageable);
+
+    ClusterDto getClusterOf(Integer profileId);
+}
@@ -1,10 +1,39 @@
 package com.atns.atns.service;
 
-import com.atns.atns.entity.Profile;
+import com.atns.atns.dto.connection.ConnectionPathsDto;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
+import java.util.OptionalInt;
 
 public interface ConnectionService {
     Map<Integer, Integer> findConnections(Integer startProfileId, int maxDegree);
+
+    /**
+     * @return the length of the shortest follow path from one profile to the other, or empty
+     * if there is none within {@code maxDegree} steps
+     */
+    OptionalInt findDegree(Integer fromProfileId, Integer toProfileId, int maxDegree);
+
+    /**
+     * Degree of each target relative to the viewer for "1st / 2nd / 3rd" badges: 0 for the viewer
+     * itself, 1 to 3, or {@code null} if the target is further away or unreachable. Meant to be
+     * called once per page of profiles the viewer is shown.
+     */
+    Map<Integer, Integer> findDegrees(Integer viewerId, Collection<Integer> targetIds);
+
+    /**
+     * Shortest follow paths from one profile to the other, up to {@code maxPaths} of them, each
+     * through a different profile where the forward and backward searches met. The search gives
+     * up after a fixed time budget and reports it in the result.
+     */
+    ConnectionPathsDto findPaths(Integer fromProfileId, Integer toProfileId, int maxDegree, int maxPaths);
+
+    /**
+     * Validates the request right away and returns a search that emits each degree level as soon
+     * as it is expanded, at most {@code limit} profiles per call.
+     *
+     * @param cursor {@code nextCursor} of the previous response, or {@code null} to start over
+     */
+    ConnectionStream streamConnections(Integer startProfileId, int maxDegree, String cursor, int limit);
 }
@@ -0,0 +1,18 @@
+package com.atns.atns.service;
+
+import com.atns.atns.dto.connection.ConnectionLevelDto;
+import com.atns.atns.dto.connection.ConnectionStreamEndDto;
+
+import java.util.function.Consumer;
+
+/**
+ * A validated connection discovery that has not run yet; see
+ * {@link ConnectionService#streamConnections}.
+ */
+@FunctionalInterface
+public interface ConnectionStream {
+    /**
+     * Runs the search, handing each chunk of a degree level to {@code sink} as soon as it is known.
+     */
+    ConnectionStreamEndDto emit(Consumer<ConnectionLevelDto> sink);
+}
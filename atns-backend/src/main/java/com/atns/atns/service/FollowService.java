@@ -1,16 +1,41 @@
 package com.atns.atns.service;
 
+import com.atns.atns.dto.CursorPage;
 import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.follow.BulkFollowResultDto;
+import com.atns.atns.dto.follow.FollowCountsDto;
 import com.atns.atns.enums.ConnectionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface FollowService {
     void followProfile(Integer followerId, Integer followeeId);
+    BulkFollowResultDto followProfiles(Integer followerId, Collection<Integer> followedIds);
     Page<ProfileDto> getFollowers(Integer profileId, Pageable pageable);
     Page<ProfileDto> getFollowing(Integer profileId, Pageable pageable);
+
+    /**
+     * Followers ordered by their influence score, highest first; the sort of {@code pageable} is ignored
+     */
+    Page<ProfileDto> getFollowersByInfluence(Integer profileId, Pageable pageable);
+
+    /**
+     * Keyset-paginated followers, oldest follow first, without a total count
+     */
+    CursorPage<ProfileDto> getFollowers(Integer profileId, String cursor, int limit);
+
+    /**
+     * Keyset-paginated followed profiles, oldest follow first, without a total count
+     */
+    CursorPage<ProfileDto> getFollowing(Integer profileId, String cursor, int limit);
+
     void unfollowProfile(Integer followerId, Integer followeeId);
     Long getFollowersCount(Integer profileId);
     Long getFollowingCount(Integer profileId);
+    Map<Integer, FollowCountsDto> getFollowCounts(Collection<Integer> profileIds);
     ConnectionStatus getConnectionStatus(Integer currentProfileId, Integer otherProfileId);
+    Map<Integer, ConnectionStatus> getConnectionStatuses(Integer currentProfileId, Collection<Integer> otherProfileIds);
 }
@@ -0,0 +1,10 @@
+package com.atns.atns.service;
+
+import com.atns.atns.dto.graph.GraphFeatureSummaryDto;
+import com.atns.atns.dto.graph.GraphFeaturesDto;
+
+public interface GraphFeatureService {
+    GraphFeaturesDto getFeatures(Integer profileId);
+
+    GraphFeatureSummaryDto getSummary();
+}
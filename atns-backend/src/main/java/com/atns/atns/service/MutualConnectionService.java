@@ -0,0 +1,16 @@
+package com.atns.atns.service;
+
+import com.atns.atns.dto.CursorPage;
+import com.atns.atns.dto.ProfileDto;
+
+public interface MutualConnectionService {
+    /**
+     * Profiles followed by both profiles, ascending by id.
+     */
+    CursorPage<ProfileDto> findSharedFollowing(Integer profileId, Integer otherProfileId, String cursor, int limit);
+
+    /**
+     * Profiles that the profile follows and that follow it back, ascending by id.
+     */
+    CursorPage<ProfileDto> findMutualConnections(Integer profileId, String cursor, int limit);
+}
@@ -1,47 +1,52 @@
 package com.atns.atns.service.impl;
 
+import com.atns.atns.dto.connection.ConnectionPathsDto;
 import com.atns.atns.exception.ConnectionDiscoveryException;
-import com.atns.atns.repo.FollowRepo;
+import com.atns.atns.graph.Adjacency;
+import com.atns.atns.graph.FollowGraph;
+import com.atns.atns.graph.GraphSearch;
+import com.atns.atns.graph.TwoHopReach;
 import com.atns.atns.service.ConnectionService;
-import com.atns.atns.service.ProfileService;
+import com.atns.atns.service.ConnectionStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
+/**
+ * Connection queries over the in-memory {@link FollowGraph}. Falls back to
+ * {@link FrontierSqlConnectionServiceImpl} while the graph is disabled or still loading.
+ */
 @Slf4j
+@Primary
 @Service
 @RequiredArgsConstructor
 public class BFSConnectionServiceImpl implements ConnectionService {
-    private static final int BATCH_SIZE = 100;
-    private final FollowRepo followRepo;
-    private final ProfileService profileService;
+    private final FollowGraph followGraph;
+    private final FrontierSqlConnectionServiceImpl sqlConnectionService;
+    private final ConnectionResultCache connectionResultCache;
+    private final TwoHopReachCache twoHopReachCache;
+    private final ConnectionPathAssembler pathAssembler;
+    private final ConnectionRequestValidator requestValidator;
 
     @Override
-    @Transactional(readOnly = true)
     public Map<Integer, Integer> findConnections(Integer startProfileId, int maxDegree) {
-        validateInput(startProfileId, maxDegree);
+        if (!followGraph.isReady()) {
+            return sqlConnectionService.findConnections(startProfileId, maxDegree);
+        }
+        requestValidator.validateInput(startProfileId, maxDegree);
         log.debug("Discovering connections for profile {} up to {} degrees", startProfileId, maxDegree);
 
         try {
-            Map<Integer, Integer> degreeMap = new LinkedHashMap<>();
-            Set<Integer> visited = new HashSet<>();
-            Queue<ProfileDegree> queue = new LinkedList<>();
-
-            // Initialize with starting profile
-            visited.add(startProfileId);
-            queue.add(new ProfileDegree(startProfileId, 0));
-
-            while (!queue.isEmpty()) {
-                ProfileDegree current = queue.poll();
-
-                if (current.degree() >= maxDegree) continue;
-
-                processConnectionsBatch(current, queue, visited, degreeMap);
-            }
+            // Level-order BFS over the resident follow graph, reused until the next follow or unfollow.
+            // The version is read before the snapshot, so an entry never misses a change its key covers
+            long graphVersion = followGraph.version();
+            Adjacency following = followGraph.snapshot().following();
+            Map<Integer, Integer> degreeMap = connectionResultCache.get(startProfileId, maxDegree, graphVersion,
+                    () -> ConnectionResultCache.Levels.search(following, startProfileId, maxDegree)).toDegreeMap();
 
             log.info("Found {} connections for profile {}", degreeMap.size(), startProfileId);
             return degreeMap;
@@ -51,36 +56,92 @@ public class BFSConnectionServiceImpl implements ConnectionService {
         }
     }
 
-    private void processConnectionsBatch(ProfileDegree current, Queue<ProfileDegree> queue,
-                                         Set<Integer> visited, Map<Integer, Integer> degreeMap) {
-        int page = 0;
-        List<Integer> connections;
+    @Override
+    public ConnectionStream streamConnections(Integer startProfileId, int maxDegree, String cursor, int limit) {
+        if (!followGraph.isReady()) {
+            return sqlConnectionService.streamConnections(startProfileId, maxDegree, cursor, limit);
+        }
+        requestValidator.validateInput(startProfileId, maxDegree);
+        ConnectionStreamPager.validateLimit(limit);
+        ConnectionStreamPager.decodeOffset(cursor);
+
+        // Levels are slices of the per-thread BFS queue; no map of every reachable profile is built
+        Adjacency following = followGraph.snapshot().following();
+        return sink -> {
+            ConnectionStreamPager pager = new ConnectionStreamPager(cursor, limit, sink);
+            GraphSearch.levels(following, startProfileId, maxDegree, pager::level);
+            return pager.end();
+        };
+    }
 
-        do {
-            PageRequest pageable = PageRequest.of(page++, BATCH_SIZE);
-            connections = followRepo.findFollowedIdsByFollowerId(current.profileId(), pageable);
+    @Override
+    public OptionalInt findDegree(Integer fromProfileId, Integer toProfileId, int maxDegree) {
+        if (!followGraph.isReady()) {
+            return sqlConnectionService.findDegree(fromProfileId, toProfileId, maxDegree);
+        }
+        requestValidator.validateDegreeInput(fromProfileId, toProfileId, maxDegree);
+        log.debug("Computing degree from profile {} to {} within {} steps", fromProfileId, toProfileId, maxDegree);
 
-            for (Integer connectionId : connections) {
-                if (!visited.contains(connectionId)) {
-                    visited.add(connectionId);
-                    int newDegree = current.degree() + 1;
-                    degreeMap.put(connectionId, newDegree);
-                    queue.add(new ProfileDegree(connectionId, newDegree));
-                }
-            }
-        } while (!connections.isEmpty());
+        try {
+            FollowGraph.Snapshot graph = followGraph.snapshot();
+            int degree = GraphSearch.distance(graph.following(), graph.followers(), fromProfileId, toProfileId, maxDegree);
+            return degree < 0 ? OptionalInt.empty() : OptionalInt.of(degree);
+        } catch (Exception e) {
+            log.error("Degree computation failed from profile {} to {}", fromProfileId, toProfileId, e);
+            throw new ConnectionDiscoveryException("Failed to compute connection degree", e);
+        }
     }
 
-    private void validateInput(Integer profileId, int maxDegree) {
-        if (profileId == null) {
-            throw new IllegalArgumentException("Profile ID cannot be null");
+    /**
+     * Answers a page of targets from the viewer's cached {@link TwoHopReach}: bitset lookups for
+     * degrees 1 and 2 and a follower-row probe for degree 3, with no search per target.
+     */
+    @Override
+    public Map<Integer, Integer> findDegrees(Integer viewerId, Collection<Integer> targetIds) {
+        if (!followGraph.isReady()) {
+            return sqlConnectionService.findDegrees(viewerId, targetIds);
         }
-        if (maxDegree < 1 || maxDegree > 3) {
-            throw new IllegalArgumentException("Max degree must be between 1 and 3");
+        requestValidator.validateBadgeInput(viewerId, targetIds);
+
+        try {
+            long graphVersion = followGraph.version();
+            FollowGraph.Snapshot graph = followGraph.snapshot();
+            TwoHopReach reach = twoHopReachCache.get(viewerId, graphVersion,
+                    () -> TwoHopReach.of(graph.following(), viewerId));
+
+            Map<Integer, Integer> degrees = new LinkedHashMap<>();
+            for (Integer targetId : targetIds) {
+                int degree = reach.degree(graph.followers(), targetId);
+                degrees.put(targetId, degree == TwoHopReach.BEYOND ? null : degree);
+            }
+            return degrees;
+        } catch (Exception e) {
+            log.error("Degree badges failed for viewer {}", viewerId, e);
+            throw new ConnectionDiscoveryException("Failed to compute connection degrees", e);
         }
-        // Verify profile exists
-        profileService.findById(profileId);
     }
 
-    private record ProfileDegree(Integer profileId, int degree) {}
-}
\ No newline at end of file
+    @Override
+    @Transactional(readOnly = true)
+    public ConnectionPathsDto findPaths(Integer fromProfileId, Integer toProfileId, int maxDegree, int maxPaths) {
+        if (!followGraph.isReady()) {
+            return sqlConnectionService.findPaths(fromProfileId, toProfileId, maxDegree, maxPaths);
+        }
+        requestValidator.validatePathInput(fromProfileId, toProfileId, maxDegree, maxPaths);
+        log.debug("Finding paths from profile {} to {} within {} steps", fromProfileId, toProfileId, maxDegree);
+
+        GraphSearch.Paths paths;
+        try {
+            FollowGraph.Snapshot graph = followGraph.snapshot();
+            paths = GraphSearch.paths(graph.following(), graph.followers(), fromProfileId, toProfileId,
+                    maxDegree, maxPaths, pathAssembler.deadline());
+        } catch (Exception e) {
+            log.error("Path search failed from profile {} to {}", fromProfileId, toProfileId, e);
+            throw new ConnectionDiscoveryException("Failed to find connection paths", e);
+        }
+        if (paths.timedOut()) {
+            log.warn("Path search from profile {} to {} ran out of its time budget", fromProfileId, toProfileId);
+        }
+        return pathAssembler.assemble(fromProfileId, toProfileId, paths.paths(), paths.timedOut());
+    }
+}
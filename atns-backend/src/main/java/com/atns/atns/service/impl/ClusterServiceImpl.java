@@ -0,0 +1,72 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.converter.ProfileConverter;
+import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.cluster.ClusterDto;
+import com.atns.atns.entity.Profile;
+import com.atns.atns.exception.ResourceNotFoundException;
+import com.atns.atns.repo.ProfileRepo;
+import com.atns.atns.service.ClusterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Browses the clusters stored in {@code profiles.cluster_id} by the nightly label propagation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClusterServiceImpl implements ClusterService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private final ProfileRepo profileRepo;
+    private final ProfileConverter profileConverter;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ClusterDto> getClusters(int minSize, Pageable pageable) {
+        if (minSize < 1) {
+            throw new IllegalArgumentException("Minimum cluster size must be at least 1");
+        }
+        // Ordered by size in the query itself, so only the page bounds are passed on
+        return profileRepo.findClusterSizes(minSize, PageRequest.of(pageable.getPageNumber(), pageSize(pageable)))
+                .map(row -> ClusterDto.builder()
+                        .clusterId(((Number) row[0]).intValue())
+                        .size(((Number) row[1]).longValue())
+                        .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProfileDto> getClusterMembers(Integer clusterId, Pageable pageable) {
+        Page<Profile> members = profileRepo.findByClusterId(clusterId,
+                PageRequest.of(pageable.getPageNumber(), pageSize(pageable), pageable.getSort()));
+        if (members.getTotalElements() == 0) {
+            throw new ResourceNotFoundException("Cluster", clusterId);
+        }
+        return members.map(profileConverter::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ClusterDto getClusterOf(Integer profileId) {
+        Profile profile = profileRepo.findById(profileId)
+                .orElseThrow(() -> new ResourceNotFoundException("Profile", profileId));
+        if (profile.getClusterId() == null) {
+            throw new ResourceNotFoundException("Cluster of profile", profileId);
+        }
+        long size = profileRepo.countByClusterId(profile.getClusterId());
+        return ClusterDto.builder()
+                .clusterId(profile.getClusterId())
+                .size(size)
+                .build();
+    }
+
+    private static int pageSize(Pageable pageable) {
+        return Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.converter.ProfileConverter;
+import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.connection.ConnectionPathsDto;
+import com.atns.atns.entity.Profile;
+import com.atns.atns.repo.ProfileRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Shared by both connection services for path queries once {@link ConnectionRequestValidator}
+ * has accepted the request: sets the time budget and turns the id paths into profiles with a
+ * single query.
+ */
+@Component
+@RequiredArgsConstructor
+class ConnectionPathAssembler {
+
+    private final ProfileRepo profileRepo;
+    private final ProfileConverter profileConverter;
+
+    /** Wall-clock budget of one path search, so hub-heavy queries cannot hold a request thread */
+    @Value("${app.graph.path.time-budget-ms:200}")
+    private long timeBudgetMs;
+
+    /**
+     * @return the {@link System#nanoTime()} deadline of a search starting now
+     */
+    long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+    }
+
+    ConnectionPathsDto assemble(Integer fromProfileId, Integer toProfileId, List<int[]> paths, boolean timedOut) {
+        Set<Integer> ids = new HashSet<>();
+        for (int[] path : paths) {
+            for (int id : path) {
+                ids.add(id);
+            }
+        }
+        Map<Integer, ProfileDto> profiles = profileRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Profile::getId, profileConverter::toDto));
+
+        List<List<ProfileDto>> hydrated = new ArrayList<>(paths.size());
+        for (int[] path : paths) {
+            List<ProfileDto> steps = Arrays.stream(path).mapToObj(profiles::get).filter(Objects::nonNull).toList();
+            if (steps.size() == path.length) {
+                hydrated.add(steps); // skip paths through a profile deleted meanwhile
+            }
+        }
+        return ConnectionPathsDto.builder()
+                .fromProfileId(fromProfileId)
+                .toProfileId(toProfileId)
+                .degree(paths.isEmpty() ? null : paths.get(0).length - 1)
+                .paths(hydrated)
+                .timedOut(timedOut)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.service.ProfileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Shared by both connection services, so the in-memory path and its SQL fallback accept exactly
+ * the same requests: argument bounds first, then the existence of every profile involved.
+ */
+@Component
+@RequiredArgsConstructor
+class ConnectionRequestValidator {
+
+    private static final int MAX_CONNECTION_DEGREE = 3;
+    private static final int MAX_DEGREE_BETWEEN = 6;
+    private static final int MAX_BADGE_TARGETS = 500;
+    private static final int MAX_PATH_DEGREE = 3;
+    private static final int MAX_PATHS = 10;
+
+    private final ProfileService profileService;
+
+    /**
+     * For connection listings and streams from one profile.
+     */
+    void validateInput(Integer profileId, int maxDegree) {
+        if (profileId == null) {
+            throw new IllegalArgumentException("Profile ID cannot be null");
+        }
+        if (maxDegree < 1 || maxDegree > MAX_CONNECTION_DEGREE) {
+            throw new IllegalArgumentException("Max degree must be between 1 and " + MAX_CONNECTION_DEGREE);
+        }
+        // Verify profile exists
+        profileService.findById(profileId);
+    }
+
+    /**
+     * For a page of degree badges seen by one viewer.
+     */
+    void validateBadgeInput(Integer viewerId, Collection<Integer> targetIds) {
+        if (viewerId == null) {
+            throw new IllegalArgumentException("Profile ID cannot be null");
+        }
+        if (targetIds.size() > MAX_BADGE_TARGETS) {
+            throw new IllegalArgumentException("At most " + MAX_BADGE_TARGETS + " profiles per request");
+        }
+        // Verify profile exists
+        profileService.findById(viewerId);
+    }
+
+    /**
+     * For the degree between two profiles.
+     */
+    void validateDegreeInput(Integer fromProfileId, Integer toProfileId, int maxDegree) {
+        if (fromProfileId == null || toProfileId == null) {
+            throw new IllegalArgumentException("Profile IDs cannot be null");
+        }
+        if (maxDegree < 1 || maxDegree > MAX_DEGREE_BETWEEN) {
+            throw new IllegalArgumentException("Max degree must be between 1 and " + MAX_DEGREE_BETWEEN);
+        }
+        // Verify both profiles exist
+        profileService.findById(fromProfileId);
+        profileService.findById(toProfileId);
+    }
+
+    /**
+     * For the shortest paths between two profiles.
+     */
+    void validatePathInput(Integer fromProfileId, Integer toProfileId, int maxDegree, int maxPaths) {
+        if (fromProfileId == null || toProfileId == null) {
+            throw new IllegalArgumentException("Profile IDs cannot be null");
+        }
+        if (maxDegree < 1 || maxDegree > MAX_PATH_DEGREE) {
+            throw new IllegalArgumentException("Max degree must be between 1 and " + MAX_PATH_DEGREE);
+        }
+        if (maxPaths < 1 || maxPaths > MAX_PATHS) {
+            throw new IllegalArgumentException("Max paths must be between 1 and " + MAX_PATHS);
+        }
+        // Verify both profiles exist
+        profileService.findById(fromProfileId);
+        profileService.findById(toProfileId);
+    }
+}
@@ -0,0 +1,96 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.graph.Adjacency;
+import com.atns.atns.graph.GraphSearch;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Results of {@link BFSConnectionServiceImpl#findConnections} keyed by the follow graph version
+ * they were computed on. Any follow or unfollow bumps the version, so entries never need to be
+ * invalidated: lookups simply stop hitting them and they age out.
+ *
+ * <p>A result is stored as two primitive arrays, the profile ids in BFS order and the end of each
+ * degree level, about 4 bytes per profile instead of two boxed map entries. The cache is bounded
+ * by that footprint, {@code app.graph.connection-cache.max-bytes}, rather than by entry count,
+ * since one result can hold a handful of profiles or most of the graph.</p>
+ */
+@Component
+public class ConnectionResultCache {
+
+    /** Approximate per-entry overhead of the key, the entry and two array headers */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<Key, Levels> cache;
+
+    public ConnectionResultCache(@Value("${app.graph.connection-cache.max-bytes:67108864}") long maxBytes,
+                                 @Value("${app.graph.connection-cache.expire-minutes:10}") long expireMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Levels levels) -> levels.weight())
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .build();
+    }
+
+    private record Key(int profileId, int maxDegree, long graphVersion) {
+    }
+
+    /**
+     * @param profileIds reached profiles in BFS order
+     * @param levelEnds  {@code levelEnds[d - 1]} is the end in {@code profileIds} of degree {@code d}
+     */
+    record Levels(int[] profileIds, int[] levelEnds) {
+
+        /**
+         * Runs a level-order BFS along {@code adjacency} straight into the compact form.
+         */
+        static Levels search(Adjacency adjacency, int start, int maxDegree) {
+            int[][] profileIds = {new int[64]};
+            int[] levelEnds = new int[maxDegree];
+            int[] counts = new int[2]; // profiles, levels
+            GraphSearch.levels(adjacency, start, maxDegree, (degree, vertices, from, to) -> {
+                int size = counts[0] + to - from;
+                if (size > profileIds[0].length) {
+                    profileIds[0] = Arrays.copyOf(profileIds[0], Math.max(size, profileIds[0].length * 2));
+                }
+                System.arraycopy(vertices, from, profileIds[0], counts[0], to - from);
+                counts[0] = size;
+                levelEnds[counts[1]++] = size;
+                return true;
+            });
+            return new Levels(Arrays.copyOf(profileIds[0], counts[0]), Arrays.copyOf(levelEnds, counts[1]));
+        }
+
+        int weight() {
+            long bytes = ENTRY_OVERHEAD_BYTES + 4L * (profileIds.length + levelEnds.length);
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
+
+        Map<Integer, Integer> toDegreeMap() {
+            Map<Integer, Integer> degrees = new LinkedHashMap<>(Math.max(16, profileIds.length * 4 / 3 + 1));
+            int i = 0;
+            for (int level = 0; level < levelEnds.length; level++) {
+                Integer degree = level + 1;
+                for (; i < levelEnds[level]; i++) {
+                    degrees.put(profileIds[i], degree);
+                }
+            }
+            return degrees;
+        }
+    }
+
+    /**
+     * @param graphVersion version read before taking the graph snapshot the search runs on
+     */
+    Levels get(int profileId, int maxDegree, long graphVersion, Supplier<Levels> search) {
+        return cache.get(new Key(profileId, maxDegree, graphVersion), key -> search.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.dto.connection.ConnectionLevelDto;
+import com.atns.atns.dto.connection.ConnectionStreamEndDto;
+import com.atns.atns.utils.CursorCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Cuts BFS levels into the lines of a streamed connection discovery: skips the profiles sent by
+ * earlier responses, splits levels into chunks of {@value #CHUNK_SIZE} ids and stops after
+ * {@code limit} profiles. The cursor is the number of profiles sent so far in BFS order, so a
+ * follow committed between two responses can shift the continuation by a few profiles.
+ */
+final class ConnectionStreamPager {
+
+    static final int MAX_LIMIT = 50_000;
+    private static final int CHUNK_SIZE = 1000;
+
+    private final Consumer<ConnectionLevelDto> sink;
+    private final int offset;
+    private final int limit;
+    private int skipped;
+    private int emitted;
+    private boolean hasNext;
+
+    ConnectionStreamPager(String cursor, int limit, Consumer<ConnectionLevelDto> sink) {
+        this.offset = decodeOffset(cursor);
+        this.limit = limit;
+        this.sink = sink;
+    }
+
+    static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    static int decodeOffset(String cursor) {
+        Integer offset = CursorCodec.decodeInt(cursor);
+        if (offset != null && offset < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return offset == null ? 0 : offset;
+    }
+
+    /**
+     * Emits {@code vertices[from, to)}, all at {@code degree}.
+     *
+     * @return {@code false} once the limit is reached and the search can stop
+     */
+    boolean level(int degree, int[] vertices, int from, int to) {
+        int skip = Math.min(offset - skipped, to - from);
+        skipped += skip;
+        from += skip;
+        while (from < to) {
+            if (emitted == limit) {
+                hasNext = true;
+                return false;
+            }
+            int size = Math.min(CHUNK_SIZE, Math.min(to - from, limit - emitted));
+            List<Integer> profileIds = new ArrayList<>(size);
+            for (int i = from; i < from + size; i++) {
+                profileIds.add(vertices[i]);
+            }
+            sink.accept(ConnectionLevelDto.builder().degree(degree).profileIds(profileIds).build());
+            from += size;
+            emitted += size;
+        }
+        return true;
+    }
+
+    boolean level(int degree, List<Integer> vertices) {
+        return level(degree, vertices.stream().mapToInt(Integer::intValue).toArray(), 0, vertices.size());
+    }
+
+    ConnectionStreamEndDto end() {
+        return ConnectionStreamEndDto.builder()
+                .emitted(emitted)
+                .nextCursor(hasNext ? CursorCodec.encode(offset + emitted) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+}
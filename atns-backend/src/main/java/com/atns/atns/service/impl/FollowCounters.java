@@ -0,0 +1,175 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains the denormalized {@code followers_count} / {@code following_count} columns of
+ * {@code profiles}. Follows and unfollows only bump striped in-memory deltas; a scheduled flush
+ * applies them in one JDBC batch, so a burst of follows on one profile costs one row update.
+ *
+ * <p>A count is the stored column plus the pending delta. The maps only hold profiles with pending
+ * deltas: a flush drains each adder and drops it if it is still zero, so a flush costs the
+ * profiles touched since the last one rather than every profile ever followed. An increment that
+ * lands in an adder the flush dropped meanwhile is moved to a live one by {@link #add}.
+ * {@link #reconcile()} recomputes the columns from {@code follows}, at startup and nightly.</p>
+ *
+ * <p>A flush always commits or rolls back in a transaction of its own, so a failed batch never
+ * aborts the transaction of a caller such as {@link #reconcile()}.</p>
+ */
+@Slf4j
+@Component
+public class FollowCounters {
+
+    private static final String FLUSH_SQL =
+            "UPDATE profiles SET followers_count = followers_count + ?, following_count = following_count + ? WHERE id = ?";
+    private static final String RECONCILE_SQL = """
+            UPDATE profiles p SET
+                followers_count = (SELECT COUNT(*) FROM follows f WHERE f.followed_id = p.id),
+                following_count = (SELECT COUNT(*) FROM follows f WHERE f.follower_id = p.id)
+            WHERE p.followers_count <> (SELECT COUNT(*) FROM follows f WHERE f.followed_id = p.id)
+               OR p.following_count <> (SELECT COUNT(*) FROM follows f WHERE f.follower_id = p.id)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+
+    private final Map<Integer, LongAdder> followerDeltas = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> followingDeltas = new ConcurrentHashMap<>();
+
+    public FollowCounters(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Records a follow ({@code +1}) or unfollow ({@code -1}) once the current transaction commits.
+     */
+    public void record(Integer followerId, Integer followedId, int delta) {
+        TransactionUtils.afterCommit(() -> {
+            add(followingDeltas, followerId, delta);
+            add(followerDeltas, followedId, delta);
+        });
+    }
+
+    /**
+     * Adds to the profile's adder. If a flush dropped that adder between the lookup and the add,
+     * the flush has not seen the add, so whatever is left in the dropped adder is taken back out
+     * and added again to a live one.
+     */
+    private static void add(Map<Integer, LongAdder> deltas, Integer profileId, long delta) {
+        while (delta != 0) {
+            LongAdder adder = deltas.computeIfAbsent(profileId, id -> new LongAdder());
+            adder.add(delta);
+            if (deltas.get(profileId) == adder) {
+                return;
+            }
+            delta = adder.sumThenReset();
+        }
+    }
+
+    public long pendingFollowers(Integer profileId) {
+        LongAdder delta = followerDeltas.get(profileId);
+        return delta == null ? 0 : delta.sum();
+    }
+
+    public long pendingFollowing(Integer profileId) {
+        LongAdder delta = followingDeltas.get(profileId);
+        return delta == null ? 0 : delta.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.follow.counter-flush-ms:5000}")
+    public synchronized void flush() {
+        flushPending();
+    }
+
+    /**
+     * @return {@code false} if the deltas could not be written and were put back for the next flush
+     */
+    private boolean flushPending() {
+        Map<Integer, long[]> deltas = new HashMap<>();
+        drain(followerDeltas, deltas, 0);
+        drain(followingDeltas, deltas, 1);
+        if (deltas.isEmpty()) {
+            return true;
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> batch.add(new Object[]{delta[0], delta[1], id}));
+        try {
+            flushTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            log.debug("Flushed follow counter deltas for {} profiles", batch.size());
+            return true;
+        } catch (DataAccessException | TransactionException e) {
+            // The batch rolled back as a whole; put the deltas back so the next flush retries them
+            deltas.forEach((id, delta) -> {
+                add(followerDeltas, id, delta[0]);
+                add(followingDeltas, id, delta[1]);
+            });
+            log.error("Failed to flush follow counters for {} profiles; will retry", batch.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Moves every pending delta into {@code slot} of {@code into}, and drops adders that are still
+     * zero once drained. The removal re-checks the sum under the map's lock, so an add racing with
+     * it either keeps the adder in the map or is noticed by {@link #add}.
+     */
+    private static void drain(Map<Integer, LongAdder> deltas, Map<Integer, long[]> into, int slot) {
+        for (Map.Entry<Integer, LongAdder> entry : deltas.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                into.computeIfAbsent(entry.getKey(), key -> new long[2])[slot] = delta;
+            }
+            deltas.computeIfPresent(entry.getKey(), (id, adder) -> adder.sum() == 0 ? null : adder);
+        }
+    }
+
+    /**
+     * Recomputes the stored counts of drifted rows from {@code follows}. Pending deltas are flushed
+     * first; follows committed while the statement runs may be counted twice until the next run.
+     * If the flush fails the reconcile is skipped, since the deltas put back in memory would be
+     * added on top of recomputed columns.
+     */
+    @Scheduled(cron = "${app.follow.counter-reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public synchronized void reconcile() {
+        if (!flushPending()) {
+            log.warn("Skipped follow counter reconcile: pending deltas could not be flushed");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int updated = jdbcTemplate.update(RECONCILE_SQL);
+        log.info("Reconciled follow counters: {} profiles corrected in {} ms", updated, System.currentTimeMillis() - start);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Failed to reconcile follow counters on startup", e);
+        }
+    }
+}
@@ -1,28 +1,71 @@
 package com.atns.atns.service.impl;
 
 import com.atns.atns.converter.ProfileConverter;
+import com.atns.atns.dto.CursorPage;
 import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.dto.follow.BulkFollowResultDto;
+import com.atns.atns.dto.follow.FollowCountsDto;
 import com.atns.atns.entity.Follow;
 import com.atns.atns.entity.Profile;
+import com.atns.atns.entity.Unfollow;
 import com.atns.atns.enums.ConnectionStatus;
 import com.atns.atns.exception.ResourceNotFoundException;
+import com.atns.atns.graph.Adjacency;
+import com.atns.atns.graph.FollowGraph;
+import com.atns.atns.recommendation.impl.RecommendationDirtyTracker;
 import com.atns.atns.repo.FollowRepo;
 import com.atns.atns.repo.ProfileRepo;
+import com.atns.atns.repo.UnfollowRepo;
 import com.atns.atns.service.FollowService;
+import com.atns.atns.utils.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FollowServiceImpl implements FollowService {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_FOLLOW = 1000;
+    /** Profiles per INSERT statement of a bulk follow */
+    private static final int BULK_FOLLOW_CHUNK = 500;
+    /**
+     * Follows every existing profile of the id array except the follower; rows that already exist
+     * are skipped by the unique constraint instead of failing the statement
+     */
+    private static final String BULK_FOLLOW_SQL = """
+            INSERT INTO follows (follower_id, followed_id, created_at)
+            SELECT ?, p.id, ? FROM profiles p WHERE p.id = ANY (?) AND p.id <> ?
+            ON CONFLICT (follower_id, followed_id) DO NOTHING
+            RETURNING followed_id
+            """;
     private final ProfileRepo profileRepo;
     private final FollowRepo followRepo;
+    private final UnfollowRepo unfollowRepo;
     private final ProfileConverter profileConverter;
+    private final RecommendationDirtyTracker recommendationDirtyTracker;
+    private final FollowGraph followGraph;
+    private final FollowCounters followCounters;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     @Transactional
@@ -44,9 +87,61 @@ public class FollowServiceImpl implements FollowService {
                 .build();
 
         followRepo.save(follow);
+        followGraph.follow(followerId, followedId);
+        followCounters.record(followerId, followedId, 1);
+        recommendationDirtyTracker.markDirty(followerId, followedId);
         log.info("Profile {} followed profile {}", followerId, followedId);
     }
 
+    /**
+     * Inserts the follows in one statement per {@value #BULK_FOLLOW_CHUNK} profiles instead of one
+     * load, check and insert per profile. Only rows actually inserted reach the follow graph,
+     * the counters and the recommendation refresh.
+     */
+    @Override
+    @Transactional
+    public BulkFollowResultDto followProfiles(Integer followerId, Collection<Integer> followedIds) {
+        if (followedIds.size() > MAX_BULK_FOLLOW) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_FOLLOW + " profiles per request");
+        }
+        if (!profileRepo.existsById(followerId)) {
+            throw new ResourceNotFoundException("Profile", followerId);
+        }
+
+        List<Integer> requested = new ArrayList<>(followedIds);
+        List<Integer> inserted = new ArrayList<>();
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < requested.size(); from += BULK_FOLLOW_CHUNK) {
+            Integer[] chunk = requested.subList(from, Math.min(requested.size(), from + BULK_FOLLOW_CHUNK))
+                    .toArray(new Integer[0]);
+            inserted.addAll(jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(BULK_FOLLOW_SQL);
+                statement.setInt(1, followerId);
+                statement.setTimestamp(2, createdAt);
+                statement.setArray(3, connection.createArrayOf("integer", chunk));
+                statement.setInt(4, followerId);
+                return statement;
+            }, (rs, rowNum) -> rs.getInt(1)));
+        }
+
+        for (Integer followedId : inserted) {
+            followGraph.follow(followerId, followedId);
+            followCounters.record(followerId, followedId, 1);
+        }
+        if (!inserted.isEmpty()) {
+            recommendationDirtyTracker.markDirty(followerId);
+            recommendationDirtyTracker.markDirty(inserted.toArray(new Integer[0]));
+        }
+        log.info("Profile {} bulk followed {} of {} profiles", followerId, inserted.size(), requested.size());
+
+        return BulkFollowResultDto.builder()
+                .requested(requested.size())
+                .inserted(inserted.size())
+                .skipped(requested.size() - inserted.size())
+                .followedIds(inserted)
+                .build();
+    }
+
     @Override
     @Transactional
     public void unfollowProfile(Integer followerId, Integer followedId) {
@@ -58,6 +153,10 @@ public class FollowServiceImpl implements FollowService {
         }
 
         followRepo.deleteByFollowerAndFollowed(follower, followed);
+        unfollowRepo.save(Unfollow.builder().followerId(followerId).followedId(followedId).build());
+        followGraph.unfollow(followerId, followedId);
+        followCounters.record(followerId, followedId, -1);
+        recommendationDirtyTracker.markDirty(followerId, followedId);
         log.info("Profile {} unfollowed profile {}", followerId, followedId);
     }
 
@@ -81,18 +180,126 @@ public class FollowServiceImpl implements FollowService {
 
     @Override
     @Transactional(readOnly = true)
-    public Long getFollowersCount(Integer profileId) {
-        Profile profile = validateProfileExists(profileId);
+    public Page<ProfileDto> getFollowersByInfluence(Integer profileId, Pageable pageable) {
+        validateProfileExists(profileId);
+
+        // The query fixes the order; a client sort would be appended after it and break the ranking
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return followRepo.findFollowersByInfluence(profileId, page)
+                .map(profileConverter::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProfileDto> getFollowers(Integer profileId, String cursor, int limit) {
+        validateSeek(profileId, limit);
+        String[] key = CursorCodec.decode(cursor, 2);
+        Pageable window = PageRequest.of(0, limit + 1);
+
+        List<Object[]> rows = key == null
+                ? followRepo.findFollowerPage(profileId, window)
+                : followRepo.findFollowerPageAfter(profileId, parseCreatedAt(key[0]), parseId(key[1]), window);
+        return toCursorPage(rows, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProfileDto> getFollowing(Integer profileId, String cursor, int limit) {
+        validateSeek(profileId, limit);
+        String[] key = CursorCodec.decode(cursor, 2);
+        Pageable window = PageRequest.of(0, limit + 1);
+
+        List<Object[]> rows = key == null
+                ? followRepo.findFollowingPage(profileId, window)
+                : followRepo.findFollowingPageAfter(profileId, parseCreatedAt(key[0]), parseId(key[1]), window);
+        return toCursorPage(rows, limit);
+    }
+
+    /**
+     * @param rows up to {@code limit + 1} rows of {@code (profile, createdAt, followId)}; the extra
+     *             row only tells whether another page follows
+     */
+    private CursorPage<ProfileDto> toCursorPage(List<Object[]> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<Object[]> page = hasNext ? rows.subList(0, limit) : rows;
+
+        List<ProfileDto> content = new ArrayList<>(page.size());
+        for (Object[] row : page) {
+            content.add(profileConverter.toDto((Profile) row[0]));
+        }
+        Object[] last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<ProfileDto>builder()
+                .content(content)
+                .nextCursor(hasNext ? CursorCodec.encode(last[1], last[2]) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private void validateSeek(Integer profileId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!profileRepo.existsById(profileId)) {
+            throw new ResourceNotFoundException("Profile", profileId);
+        }
+    }
+
+    private static LocalDateTime parseCreatedAt(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
 
-        return followRepo.countByFollowed(profile);
+    @Override
+    @Transactional(readOnly = true)
+    public Long getFollowersCount(Integer profileId) {
+        return getFollowCounts(profileId).followersCount();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getFollowingCount(Integer profileId) {
-        Profile profile = validateProfileExists(profileId);
+        return getFollowCounts(profileId).followingCount();
+    }
 
-        return followRepo.countByFollower(profile);
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, FollowCountsDto> getFollowCounts(Collection<Integer> profileIds) {
+        if (profileIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " profiles per request");
+        }
+        Map<Integer, FollowCountsDto> counts = new LinkedHashMap<>();
+        if (profileIds.isEmpty()) {
+            return counts;
+        }
+        // Stored counters plus the deltas not flushed yet; no COUNT(*) over follows
+        for (Object[] row : profileRepo.findFollowCounts(profileIds)) {
+            Integer id = (Integer) row[0];
+            counts.put(id, FollowCountsDto.builder()
+                    .profileId(id)
+                    .followersCount((Long) row[1] + followCounters.pendingFollowers(id))
+                    .followingCount((Long) row[2] + followCounters.pendingFollowing(id))
+                    .build());
+        }
+        return counts;
+    }
+
+    private FollowCountsDto getFollowCounts(Integer profileId) {
+        FollowCountsDto counts = getFollowCounts(List.of(profileId)).get(profileId);
+        if (counts == null) {
+            throw new ResourceNotFoundException("Profile", profileId);
+        }
+        return counts;
     }
 
     @Override
@@ -110,6 +317,56 @@ public class FollowServiceImpl implements FollowService {
         return ConnectionStatus.NONE;
     }
 
+    /**
+     * Resolves the status towards every target at once: from the follow graph when it is loaded,
+     * otherwise with one query over the edges touching {@code currentProfileId}. Unknown target
+     * ids come back as {@link ConnectionStatus#NONE}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, ConnectionStatus> getConnectionStatuses(Integer currentProfileId, Collection<Integer> otherProfileIds) {
+        if (otherProfileIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " profiles per request");
+        }
+        if (!profileRepo.existsById(currentProfileId)) {
+            throw new ResourceNotFoundException("Profile", currentProfileId);
+        }
+
+        Map<Integer, ConnectionStatus> statuses = new LinkedHashMap<>();
+        if (followGraph.isReady()) {
+            Adjacency following = followGraph.snapshot().following();
+            for (Integer otherId : otherProfileIds) {
+                statuses.put(otherId, toStatus(following.contains(currentProfileId, otherId),
+                        following.contains(otherId, currentProfileId)));
+            }
+            return statuses;
+        }
+
+        if (otherProfileIds.isEmpty()) {
+            return statuses;
+        }
+        Set<Integer> followed = new HashSet<>();
+        Set<Integer> followedBy = new HashSet<>();
+        for (Object[] edge : followRepo.findEdgesBetween(currentProfileId, otherProfileIds)) {
+            if (currentProfileId.equals(edge[0])) {
+                followed.add((Integer) edge[1]);
+            } else {
+                followedBy.add((Integer) edge[0]);
+            }
+        }
+        for (Integer otherId : otherProfileIds) {
+            statuses.put(otherId, toStatus(followed.contains(otherId), followedBy.contains(otherId)));
+        }
+        return statuses;
+    }
+
+    private static ConnectionStatus toStatus(boolean follows, boolean followedBack) {
+        if (!follows) {
+            return ConnectionStatus.NONE;
+        }
+        return followedBack ? ConnectionStatus.CONNECTED : ConnectionStatus.FOLLOWED;
+    }
+
     private Profile validateProfileExists(Integer profileId) {
         return profileRepo.findById(profileId)
                 .orElseThrow(() -> new ResourceNotFoundException("Profile", profileId));
@@ -0,0 +1,305 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.dto.connection.ConnectionPathsDto;
+import com.atns.atns.exception.ConnectionDiscoveryException;
+import com.atns.atns.repo.FollowRepo;
+import com.atns.atns.service.ConnectionService;
+import com.atns.atns.service.ConnectionStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Level-synchronous BFS in SQL: each round trip expands a whole frontier with one
+ * {@code IN (:frontier)} query that returns the distinct next level, so a 3-degree query takes
+ * at most 3 round trips (more only for frontiers above {@value #FRONTIER_CHUNK} profiles).
+ * Used by {@link BFSConnectionServiceImpl} while the in-memory follow graph is not available.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FrontierSqlConnectionServiceImpl implements ConnectionService {
+    /** Keeps each query well under the PostgreSQL bind parameter limit */
+    private static final int FRONTIER_CHUNK = 5000;
+    private final FollowRepo followRepo;
+    private final ConnectionPathAssembler pathAssembler;
+    private final ConnectionRequestValidator requestValidator;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, Integer> findConnections(Integer startProfileId, int maxDegree) {
+        requestValidator.validateInput(startProfileId, maxDegree);
+        log.debug("Discovering connections for profile {} up to {} degrees in SQL", startProfileId, maxDegree);
+
+        try {
+            Map<Integer, Integer> degreeMap = new LinkedHashMap<>();
+            Set<Integer> visited = new HashSet<>();
+            visited.add(startProfileId);
+            List<Integer> frontier = List.of(startProfileId);
+
+            for (int degree = 1; degree <= maxDegree && !frontier.isEmpty(); degree++) {
+                List<Integer> next = new ArrayList<>();
+                for (Integer profileId : expand(frontier, followRepo::findDistinctFollowedIdsByFollowerIdIn)) {
+                    if (visited.add(profileId)) {
+                        degreeMap.put(profileId, degree);
+                        next.add(profileId);
+                    }
+                }
+                frontier = next;
+            }
+
+            log.info("Found {} connections for profile {}", degreeMap.size(), startProfileId);
+            return degreeMap;
+        } catch (Exception e) {
+            log.error("Connection discovery failed for profile {}", startProfileId, e);
+            throw new ConnectionDiscoveryException("Failed to discover connections", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ConnectionStream streamConnections(Integer startProfileId, int maxDegree, String cursor, int limit) {
+        requestValidator.validateInput(startProfileId, maxDegree);
+        ConnectionStreamPager.validateLimit(limit);
+        ConnectionStreamPager.decodeOffset(cursor);
+
+        return sink -> {
+            ConnectionStreamPager pager = new ConnectionStreamPager(cursor, limit, sink);
+            Set<Integer> visited = new HashSet<>();
+            visited.add(startProfileId);
+            List<Integer> frontier = List.of(startProfileId);
+
+            for (int degree = 1; degree <= maxDegree && !frontier.isEmpty(); degree++) {
+                List<Integer> next = new ArrayList<>();
+                for (Integer profileId : expand(frontier, followRepo::findDistinctFollowedIdsByFollowerIdIn)) {
+                    if (visited.add(profileId)) {
+                        next.add(profileId);
+                    }
+                }
+                if (!next.isEmpty() && !pager.level(degree, next)) {
+                    break;
+                }
+                frontier = next;
+            }
+            return pager.end();
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OptionalInt findDegree(Integer fromProfileId, Integer toProfileId, int maxDegree) {
+        requestValidator.validateDegreeInput(fromProfileId, toProfileId, maxDegree);
+        if (fromProfileId.equals(toProfileId)) {
+            return OptionalInt.of(0);
+        }
+
+        try {
+            // Bidirectional: forward along follows from the source, backward from the target,
+            // always expanding the smaller frontier; levels remember each profile's distance
+            Map<Integer, Integer> forward = new HashMap<>(Map.of(fromProfileId, 0));
+            Map<Integer, Integer> backward = new HashMap<>(Map.of(toProfileId, 0));
+            List<Integer> forwardFrontier = List.of(fromProfileId);
+            List<Integer> backwardFrontier = List.of(toProfileId);
+            int forwardDepth = 0;
+            int backwardDepth = 0;
+
+            while (forwardDepth + backwardDepth < maxDegree && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+                boolean expandForward = forwardFrontier.size() <= backwardFrontier.size();
+                Map<Integer, Integer> levels = expandForward ? forward : backward;
+                Map<Integer, Integer> other = expandForward ? backward : forward;
+                int depth = expandForward ? ++forwardDepth : ++backwardDepth;
+
+                List<Integer> reached = expand(expandForward ? forwardFrontier : backwardFrontier, expandForward
+                        ? followRepo::findDistinctFollowedIdsByFollowerIdIn
+                        : followRepo::findDistinctFollowerIdsByFollowedIdIn);
+                List<Integer> next = new ArrayList<>();
+                int best = -1;
+                for (Integer profileId : reached) {
+                    if (levels.putIfAbsent(profileId, depth) != null) {
+                        continue;
+                    }
+                    next.add(profileId);
+                    Integer otherDepth = other.get(profileId);
+                    if (otherDepth != null) {
+                        best = best < 0 ? depth + otherDepth : Math.min(best, depth + otherDepth);
+                    }
+                }
+                if (best >= 0) {
+                    return OptionalInt.of(best);
+                }
+                if (expandForward) {
+                    forwardFrontier = next;
+                } else {
+                    backwardFrontier = next;
+                }
+            }
+            return OptionalInt.empty();
+        } catch (Exception e) {
+            log.error("Degree computation failed from profile {} to {}", fromProfileId, toProfileId, e);
+            throw new ConnectionDiscoveryException("Failed to compute connection degree", e);
+        }
+    }
+
+    /**
+     * Two round trips for everything within two steps, then one query for the followers of the
+     * targets still unresolved: a target is at degree 3 when one of them is within two steps.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, Integer> findDegrees(Integer viewerId, Collection<Integer> targetIds) {
+        requestValidator.validateBadgeInput(viewerId, targetIds);
+
+        try {
+            List<Integer> firstHop = followRepo.findFollowedIdsByFollowerId(viewerId);
+            Set<Integer> first = new HashSet<>(firstHop);
+            Set<Integer> withinTwo = new HashSet<>(first);
+            if (!firstHop.isEmpty()) {
+                withinTwo.addAll(expand(firstHop, followRepo::findDistinctFollowedIdsByFollowerIdIn));
+            }
+            withinTwo.remove(viewerId);
+
+            Map<Integer, Integer> degrees = new LinkedHashMap<>();
+            List<Integer> unresolved = new ArrayList<>();
+            for (Integer targetId : targetIds) {
+                if (targetId.equals(viewerId)) {
+                    degrees.put(targetId, 0);
+                } else if (first.contains(targetId)) {
+                    degrees.put(targetId, 1);
+                } else if (withinTwo.contains(targetId)) {
+                    degrees.put(targetId, 2);
+                } else {
+                    degrees.put(targetId, null);
+                    unresolved.add(targetId);
+                }
+            }
+            if (!unresolved.isEmpty() && !withinTwo.isEmpty()) {
+                for (Object[] edge : followRepo.findEdgesToFollowed(unresolved)) {
+                    if (withinTwo.contains((Integer) edge[0])) {
+                        degrees.put((Integer) edge[1], 3);
+                    }
+                }
+            }
+            return degrees;
+        } catch (Exception e) {
+            log.error("Degree badges failed for viewer {}", viewerId, e);
+            throw new ConnectionDiscoveryException("Failed to compute connection degrees", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ConnectionPathsDto findPaths(Integer fromProfileId, Integer toProfileId, int maxDegree, int maxPaths) {
+        requestValidator.validatePathInput(fromProfileId, toProfileId, maxDegree, maxPaths);
+        if (fromProfileId.equals(toProfileId)) {
+            return pathAssembler.assemble(fromProfileId, toProfileId, List.<int[]>of(new int[]{fromProfileId}), false);
+        }
+        long deadline = pathAssembler.deadline();
+
+        try {
+            // Bidirectional like findDegree, but the queries return edges so each side records parents
+            PathSide forward = new PathSide(fromProfileId, followRepo::findEdgesFromFollowers, true);
+            PathSide backward = new PathSide(toProfileId, followRepo::findEdgesToFollowed, false);
+            while (forward.depth + backward.depth < maxDegree && !forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+                if (System.nanoTime() - deadline > 0) {
+                    log.warn("Path search from profile {} to {} ran out of its time budget", fromProfileId, toProfileId);
+                    return pathAssembler.assemble(fromProfileId, toProfileId, List.of(), true);
+                }
+                PathSide expanded = forward.frontier.size() <= backward.frontier.size() ? forward : backward;
+                PathSide other = expanded == forward ? backward : forward;
+                List<Integer> meeting = expanded.expand(other);
+                if (!meeting.isEmpty()) {
+                    int best = meeting.stream().mapToInt(id -> expanded.depth + other.levels.get(id)).min().getAsInt();
+                    List<int[]> paths = new ArrayList<>();
+                    for (Integer meet : meeting) {
+                        if (paths.size() < maxPaths && expanded.depth + other.levels.get(meet) == best) {
+                            paths.add(path(forward, backward, meet, best));
+                        }
+                    }
+                    return pathAssembler.assemble(fromProfileId, toProfileId, paths, false);
+                }
+            }
+            return pathAssembler.assemble(fromProfileId, toProfileId, List.of(), false);
+        } catch (Exception e) {
+            log.error("Path search failed from profile {} to {}", fromProfileId, toProfileId, e);
+            throw new ConnectionDiscoveryException("Failed to find connection paths", e);
+        }
+    }
+
+    private static int[] path(PathSide forward, PathSide backward, int meet, int length) {
+        int[] path = new int[length + 1];
+        int at = forward.levels.get(meet);
+        Integer v = meet;
+        for (int i = at; i >= 0; i--, v = forward.parents.get(v)) {
+            path[i] = v;
+        }
+        v = meet;
+        for (int i = at; i <= length; i++, v = backward.parents.get(v)) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * One direction of the SQL path search; levels and parents of every profile it reached.
+     */
+    private static final class PathSide {
+
+        private final Map<Integer, Integer> levels = new HashMap<>();
+        private final Map<Integer, Integer> parents = new HashMap<>();
+        private final Function<Collection<Integer>, List<Object[]>> edges;
+        /** Whether edges lead from the frontier (follower) to the next level (followed) */
+        private final boolean alongFollows;
+        private List<Integer> frontier;
+        private int depth;
+
+        PathSide(Integer origin, Function<Collection<Integer>, List<Object[]>> edges, boolean alongFollows) {
+            this.edges = edges;
+            this.alongFollows = alongFollows;
+            levels.put(origin, 0);
+            frontier = List.of(origin);
+        }
+
+        /**
+         * @return the newly reached profiles the other side has reached too
+         */
+        List<Integer> expand(PathSide other) {
+            depth++;
+            List<Integer> next = new ArrayList<>();
+            List<Integer> meeting = new ArrayList<>();
+            for (int from = 0; from < frontier.size(); from += FRONTIER_CHUNK) {
+                for (Object[] edge : edges.apply(frontier.subList(from, Math.min(frontier.size(), from + FRONTIER_CHUNK)))) {
+                    Integer parent = (Integer) edge[alongFollows ? 0 : 1];
+                    Integer reached = (Integer) edge[alongFollows ? 1 : 0];
+                    if (levels.putIfAbsent(reached, depth) != null) {
+                        continue;
+                    }
+                    parents.put(reached, parent);
+                    next.add(reached);
+                    if (other.levels.containsKey(reached)) {
+                        meeting.add(reached);
+                    }
+                }
+            }
+            frontier = next;
+            return meeting;
+        }
+    }
+
+    /**
+     * @return the distinct next level of {@code frontier}, one query per {@value #FRONTIER_CHUNK} profiles
+     */
+    private static List<Integer> expand(List<Integer> frontier, Function<Collection<Integer>, List<Integer>> query) {
+        if (frontier.size() <= FRONTIER_CHUNK) {
+            return query.apply(frontier);
+        }
+        Set<Integer> reached = new LinkedHashSet<>();
+        for (int from = 0; from < frontier.size(); from += FRONTIER_CHUNK) {
+            reached.addAll(query.apply(frontier.subList(from, Math.min(frontier.size(), from + FRONTIER_CHUNK))));
+        }
+        return new ArrayList<>(reached);
+    }
+}
@@ -0,0 +1,77 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.dto.graph.GraphFeatureSummaryDto;
+import com.atns.atns.dto.graph.GraphFeaturesDto;
+import com.atns.atns.exception.ResourceNotFoundException;
+import com.atns.atns.graph.GraphFeatureStore;
+import com.atns.atns.graph.GraphFeatures;
+import com.atns.atns.repo.ProfileRepo;
+import com.atns.atns.service.GraphFeatureService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads graph features from the in-memory {@link GraphFeatureStore}; nothing here touches the
+ * follows table.
+ */
+@Service
+@RequiredArgsConstructor
+public class GraphFeatureServiceImpl implements GraphFeatureService {
+    private final GraphFeatureStore graphFeatureStore;
+    private final ProfileRepo profileRepo;
+
+    @Override
+    public GraphFeaturesDto getFeatures(Integer profileId) {
+        GraphFeatureStore.Published published = graphFeatureStore.current();
+        if (published == null) {
+            throw new ResourceNotFoundException("Graph features of profile", profileId);
+        }
+        if (!profileRepo.existsById(profileId)) {
+            throw new ResourceNotFoundException("Profile", profileId);
+        }
+        GraphFeatures features = published.features();
+        return GraphFeaturesDto.builder()
+                .profileId(profileId)
+                .inDegree(features.inDegree(profileId))
+                .outDegree(features.outDegree(profileId))
+                .mutualDegree(features.mutualDegree(profileId))
+                .neighbourCount(features.neighbourCount(profileId))
+                .triangles(features.triangles(profileId))
+                .clusteringCoefficient(features.clusteringCoefficient(profileId))
+                .reciprocity(features.reciprocity(profileId))
+                .build();
+    }
+
+    @Override
+    public GraphFeatureSummaryDto getSummary() {
+        GraphFeatureStore.Published published = graphFeatureStore.current();
+        if (published == null) {
+            return GraphFeatureSummaryDto.builder().graphVersion(-1).build();
+        }
+        GraphFeatures features = published.features();
+        int connected = 0;
+        int following = 0;
+        long triangles = 0;
+        double clustering = 0;
+        double reciprocity = 0;
+        for (int v = 0; v < features.vertexCapacity(); v++) {
+            if (features.neighbourCount(v) > 0) {
+                connected++;
+                triangles += features.triangles(v);
+                clustering += features.clusteringCoefficient(v);
+            }
+            if (features.outDegree(v) > 0) {
+                following++;
+                reciprocity += features.reciprocity(v);
+            }
+        }
+        return GraphFeatureSummaryDto.builder()
+                .connectedProfiles(connected)
+                .triangles(triangles / 3) // every triangle is counted at each of its corners
+                .averageClustering(connected == 0 ? 0 : clustering / connected)
+                .averageReciprocity(following == 0 ? 0 : reciprocity / following)
+                .graphVersion(published.graphVersion())
+                .computedAt(published.computedAt())
+                .build();
+    }
+}
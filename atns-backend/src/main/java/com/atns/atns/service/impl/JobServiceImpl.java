@@ -9,6 +9,7 @@ import com.atns.atns.entity.Profile;
 import com.atns.atns.entity.Skill;
 import com.atns.atns.exception.JobNotFoundException;
 import com.atns.atns.exception.UnauthorizedJobAccessException;
+import com.atns.atns.recommendation.index.JobSkillIndex;
 import com.atns.atns.repo.JobRepo;
 import com.atns.atns.repo.ProfileRepo;
 import com.atns.atns.repo.SkillRepo;
@@ -38,6 +39,7 @@ public class JobServiceImpl implements JobService {
     private final SkillRepo skillRepo;
     private final JobConverter jobConverter;
     private final UserRepo userRepo;
+    private final JobSkillIndex jobSkillIndex;
 
     @Override
     @Transactional
@@ -65,6 +67,7 @@ public class JobServiceImpl implements JobService {
         }
 
         Job savedJob = jobRepo.save(job);
+        jobSkillIndex.index(savedJob);
         log.info("Job created successfully with ID: {}", savedJob.getId());
 
         return jobConverter.toResponseDto(savedJob);
@@ -178,6 +181,7 @@ public class JobServiceImpl implements JobService {
         }
 
         Job updatedJob = jobRepo.save(job);
+        jobSkillIndex.index(updatedJob);
         log.info("Job updated successfully with ID: {}", jobId);
 
         return jobConverter.toResponseDto(updatedJob);
@@ -193,6 +197,7 @@ public class JobServiceImpl implements JobService {
         }
 
         jobRepo.deleteById(jobId);
+        jobSkillIndex.remove(jobId);
         log.info("Job deleted successfully with ID: {}", jobId);
     }
 
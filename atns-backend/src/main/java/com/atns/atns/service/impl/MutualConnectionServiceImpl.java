@@ -0,0 +1,132 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.converter.ProfileConverter;
+import com.atns.atns.dto.CursorPage;
+import com.atns.atns.dto.ProfileDto;
+import com.atns.atns.entity.Profile;
+import com.atns.atns.exception.ResourceNotFoundException;
+import com.atns.atns.graph.Adjacency;
+import com.atns.atns.graph.FollowGraph;
+import com.atns.atns.graph.SortedIntArrays;
+import com.atns.atns.repo.FollowRepo;
+import com.atns.atns.repo.ProfileRepo;
+import com.atns.atns.service.MutualConnectionService;
+import com.atns.atns.utils.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mutual connections as intersections of sorted adjacency rows of the {@link FollowGraph}; only
+ * the profiles of the returned page are loaded. While the graph is not ready the two id lists are
+ * read from SQL instead and intersected the same way.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MutualConnectionServiceImpl implements MutualConnectionService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private final FollowGraph followGraph;
+    private final FollowRepo followRepo;
+    private final ProfileRepo profileRepo;
+    private final ProfileConverter profileConverter;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProfileDto> findSharedFollowing(Integer profileId, Integer otherProfileId, String cursor, int limit) {
+        validateInput(limit, profileId, otherProfileId);
+        Integer after = CursorCodec.decodeInt(cursor);
+
+        if (followGraph.isReady()) {
+            Adjacency following = followGraph.snapshot().following();
+            return page(following, profileId, following, otherProfileId, after, limit);
+        }
+        return page(sortedIds(followRepo.findFollowedIdsByFollowerId(profileId)),
+                sortedIds(followRepo.findFollowedIdsByFollowerId(otherProfileId)), after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProfileDto> findMutualConnections(Integer profileId, String cursor, int limit) {
+        validateInput(limit, profileId);
+        Integer after = CursorCodec.decodeInt(cursor);
+
+        if (followGraph.isReady()) {
+            FollowGraph.Snapshot graph = followGraph.snapshot();
+            return page(graph.following(), profileId, graph.followers(), profileId, after, limit);
+        }
+        return page(sortedIds(followRepo.findFollowedIdsByFollowerId(profileId)),
+                sortedIds(followRepo.findFollowerIdsByFollowedId(profileId)), after, limit);
+    }
+
+    private CursorPage<ProfileDto> page(Adjacency left, int leftVertex, Adjacency right, int rightVertex,
+                                        Integer after, int limit) {
+        int[] a = left.targets(leftVertex);
+        int[] b = right.targets(rightVertex);
+        return page(a, left.start(leftVertex, a), left.end(leftVertex, a),
+                b, right.start(rightVertex, b), right.end(rightVertex, b), after, limit);
+    }
+
+    private CursorPage<ProfileDto> page(int[] a, int[] b, Integer after, int limit) {
+        return page(a, 0, a.length, b, 0, b.length, after, limit);
+    }
+
+    private CursorPage<ProfileDto> page(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo,
+                                        Integer after, int limit) {
+        int total = SortedIntArrays.intersectionSize(a, aFrom, aTo, b, bFrom, bTo);
+
+        // Resume right after the cursor; one extra id tells whether another page follows
+        int[] ids = new int[limit + 1];
+        int found = after == null
+                ? SortedIntArrays.intersect(a, aFrom, aTo, b, bFrom, bTo, ids, ids.length)
+                : SortedIntArrays.intersect(a, SortedIntArrays.lowerBound(a, aFrom, aTo, after + 1), aTo,
+                b, SortedIntArrays.lowerBound(b, bFrom, bTo, after + 1), bTo, ids, ids.length);
+        int size = Math.min(found, limit);
+        boolean hasNext = found > limit;
+
+        return CursorPage.<ProfileDto>builder()
+                .content(toProfiles(ids, size))
+                .nextCursor(hasNext ? CursorCodec.encode(ids[size - 1]) : null)
+                .hasNext(hasNext)
+                .totalElements((long) total)
+                .build();
+    }
+
+    private List<ProfileDto> toProfiles(int[] ids, int size) {
+        List<Integer> pageIds = Arrays.stream(ids, 0, size).boxed().toList();
+        Map<Integer, Profile> profiles = profileRepo.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Profile::getId, Function.identity()));
+
+        List<ProfileDto> content = new ArrayList<>(size);
+        for (Integer id : pageIds) {
+            Profile profile = profiles.get(id);
+            if (profile != null) {
+                content.add(profileConverter.toDto(profile));
+            }
+        }
+        return content;
+    }
+
+    private static int[] sortedIds(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+    }
+
+    private void validateInput(int limit, Integer... profileIds) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        for (Integer profileId : profileIds) {
+            if (profileId == null) {
+                throw new IllegalArgumentException("Profile ID cannot be null");
+            }
+            if (!profileRepo.existsById(profileId)) {
+                throw new ResourceNotFoundException("Profile", profileId);
+            }
+        }
+    }
+}
@@ -9,6 +9,8 @@ import com.atns.atns.entity.Skill;
 import com.atns.atns.entity.User;
 import com.atns.atns.enums.Role;
 import com.atns.atns.exception.ResourceNotFoundException;
+import com.atns.atns.recommendation.impl.RecommendationDirtyTracker;
+import com.atns.atns.recommendation.index.SkillVectorIndex;
 import com.atns.atns.repo.ProfileRepo;
 import com.atns.atns.repo.SkillRepo;
 import com.atns.atns.repo.UserRepo;
@@ -36,11 +38,14 @@ public class ProfileServiceImpl implements ProfileService {
     private final SkillConverter skillConverter;
     private final UserRepo userRepo;
     private final SkillRepo skillRepo;
+    private final SkillVectorIndex skillVectorIndex;
+    private final RecommendationDirtyTracker recommendationDirtyTracker;
 
     public ProfileDto save(ProfileDto profileDto, User user) {
         Profile profile = profileConverter.toEntity(profileDto);
         profile.setUser(user);
         Profile saved = profileRepo.save(profile);
+        skillVectorIndex.index(saved);
         log.info("Saved profile: {}", saved.getId());
         return profileConverter.toDto(saved);
     }
@@ -77,6 +82,8 @@ public class ProfileServiceImpl implements ProfileService {
         existingProfile.setUser(existingProfile.getUser());
 
         Profile updated = profileRepo.save(existingProfile);
+        skillVectorIndex.index(updated);
+        recommendationDirtyTracker.markDirty(updated.getId());
         log.info("Updated profile: {}", updated);
         return profileConverter.toDto(updated);
     }
@@ -96,7 +103,8 @@ public class ProfileServiceImpl implements ProfileService {
                 .orElseThrow(() -> new ResourceNotFoundException("Profile", email));
 
         profile.getSkills().removeIf(skill -> skill.getId().equals(skillId));
-        profileRepo.save(profile);
+        skillVectorIndex.index(profileRepo.save(profile));
+        recommendationDirtyTracker.markDirty(profile.getId());
     }
 
 
@@ -122,6 +130,7 @@ public class ProfileServiceImpl implements ProfileService {
             throw new RuntimeException("Profile not found!");
         }
         profileRepo.deleteById(id);
+        skillVectorIndex.remove(id);
         log.info("Deleted profile with Id: {}", id);
     }
 
@@ -151,6 +160,8 @@ public class ProfileServiceImpl implements ProfileService {
 
         profile.getSkills().add(skill);
         Profile savedProfile = profileRepo.save(profile);
+        skillVectorIndex.index(savedProfile);
+        recommendationDirtyTracker.markDirty(savedProfile.getId());
 
         return profileConverter.toDto(savedProfile);
     }
@@ -0,0 +1,41 @@
+package com.atns.atns.service.impl;
+
+import com.atns.atns.graph.TwoHopReach;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * {@link TwoHopReach} per viewer and follow graph version, so the pages of one browsing session
+ * share a single two-hop walk. Like {@link ConnectionResultCache}, entries are never invalidated:
+ * a follow or unfollow bumps the version and the old entries age out. The cache is bounded by the
+ * bitsets' footprint, {@code app.graph.degree-cache.max-bytes}.
+ */
+@Component
+public class TwoHopReachCache {
+
+    private final Cache<Key, TwoHopReach> cache;
+
+    public TwoHopReachCache(@Value("${app.graph.degree-cache.max-bytes:33554432}") long maxBytes,
+                            @Value("${app.graph.degree-cache.expire-minutes:30}") long expireMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, TwoHopReach reach) -> (int) Math.min(Integer.MAX_VALUE, reach.weightBytes()))
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .build();
+    }
+
+    private record Key(int viewerId, long graphVersion) {
+    }
+
+    /**
+     * @param graphVersion version read before taking the graph snapshot the reach is built on
+     */
+    TwoHopReach get(int viewerId, long graphVersion, Supplier<TwoHopReach> build) {
+        return cache.get(new Key(viewerId, graphVersion), key -> build.get());
+    }
+}
@@ -0,0 +1,66 @@
+package com.atns.atns.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursors: the key parts of the last returned row, joined and Base64url
+ * encoded so clients pass them back without interpreting them.
+ */
+public class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the key parts, or {@code null} for a missing cursor (the first page)
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode}
+     *                                  with {@code expectedParts} parts
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a single-integer cursor.
+     *
+     * @return the key, or {@code null} for the first page
+     */
+    public static Integer decodeInt(String cursor) {
+        String[] parts = decode(cursor, 1);
+        if (parts == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
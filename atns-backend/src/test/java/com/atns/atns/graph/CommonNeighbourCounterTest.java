@@ -0,0 +1,100 @@
+package com.atns.atns.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommonNeighbourCounterTest {
+
+    /**
+     * 1 follows 2 and 3; 2 leads back to 1 and 3 and on to 4 and 5; 3 leads to 4 and 6;
+     * 5 -> 7 is three steps from 1 and 6 -> 2 closes a loop.
+     */
+    private static final Adjacency FOLLOWING = TestGraphs.of(8,
+            1, 2, 1, 3,
+            2, 1, 2, 3, 2, 4, 2, 5,
+            3, 4, 3, 6,
+            5, 7,
+            6, 2).following();
+
+    @Test
+    void countsTheNeighboursLeadingToEachTwoHopVertex() {
+        assertEquals(Map.of(4, 2, 5, 1, 6, 1), count(1));
+    }
+
+    @Test
+    void excludesSelfAndDirectFollows() {
+        Map<Integer, Integer> counts = count(1);
+
+        assertFalse(counts.containsKey(1), "self reached back through 2");
+        assertFalse(counts.containsKey(3), "direct follow reached through 2");
+        assertFalse(counts.containsKey(7), "three steps away");
+    }
+
+    @Test
+    void reportsNothingOutsideTheGraph() {
+        assertEquals(Map.of(), count(-1));
+        assertEquals(Map.of(), count(8));
+        assertEquals(Map.of(), count(7)); // follows no one
+    }
+
+    @Test
+    void buffersAreResetBetweenCalls() {
+        Map<Integer, Integer> first = count(1);
+
+        // 2 and 3 were excluded and 4 counted twice in the call before
+        assertEquals(Map.of(2, 1), count(3));
+        assertEquals(first, count(1));
+        assertEquals(Map.of(6, 1, 7, 1), count(2));
+    }
+
+    @Test
+    void excludedBitsAreClearedInEveryWord() {
+        // Ids 64 apart land in different words of the bitset
+        Adjacency following = TestGraphs.of(400, 0, 100, 100, 0, 100, 200, 300, 100).following();
+        Map<Integer, Integer> counts = new TreeMap<>();
+
+        CommonNeighbourCounter.count(following, 0, counts::put);
+        assertEquals(Map.of(200, 1), counts);
+
+        counts.clear();
+        CommonNeighbourCounter.count(following, 300, counts::put);
+        assertEquals(Map.of(0, 1, 200, 1), counts);
+    }
+
+    @Test
+    void buffersAreResetWhenTheSinkFails() {
+        assertThrows(IllegalStateException.class, () -> CommonNeighbourCounter.count(FOLLOWING, 1, (vertex, count) -> {
+            throw new IllegalStateException("sink failed");
+        }));
+
+        assertEquals(Map.of(4, 2, 5, 1, 6, 1), count(1));
+        assertEquals(Map.of(2, 1), count(3));
+    }
+
+    @Test
+    void sinkMayStartAnotherCount() {
+        Map<Integer, Integer> nested = new TreeMap<>();
+        Map<Integer, Integer> outer = new TreeMap<>();
+        CommonNeighbourCounter.count(FOLLOWING, 1, (vertex, count) -> {
+            outer.put(vertex, count);
+            if (nested.isEmpty()) {
+                nested.putAll(count(3));
+            }
+        });
+
+        assertEquals(Map.of(4, 2, 5, 1, 6, 1), outer);
+        assertEquals(Map.of(2, 1), nested);
+        assertEquals(Map.of(4, 2, 5, 1, 6, 1), count(1));
+    }
+
+    private static Map<Integer, Integer> count(int self) {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        int reported = CommonNeighbourCounter.count(FOLLOWING, self, counts::put);
+        assertEquals(counts.size(), reported);
+        return counts;
+    }
+}
@@ -0,0 +1,140 @@
+package com.atns.atns.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FollowGraphSnapshotFileTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2026, 10, 18, 12, 30, 15);
+
+    @TempDir
+    Path dir;
+
+    private static FollowGraph.Frozen graph() {
+        // 0 and 5 have no edges, 6 is only followed
+        return TestGraphs.of(7, 1, 2, 1, 3, 2, 1, 2, 4, 3, 6, 4, 1);
+    }
+
+    private Path written() throws IOException {
+        FollowGraph.Frozen graph = graph();
+        Path path = dir.resolve("follow-graph.bin");
+        FollowGraphSnapshotFile.write(path, graph.following(), graph.followers(), WATERMARK);
+        return path;
+    }
+
+    @Test
+    void roundTripsBothDirectionsAndWatermark() throws IOException {
+        FollowGraph.Frozen graph = graph();
+
+        FollowGraphSnapshotFile.Contents contents = FollowGraphSnapshotFile.read(written());
+
+        assertEquals(WATERMARK, contents.watermark());
+        assertArrayEquals(graph.following().csrOffsets(), contents.following().csrOffsets());
+        assertArrayEquals(graph.following().csrTargets(), contents.following().csrTargets());
+        assertArrayEquals(graph.followers().csrOffsets(), contents.followers().csrOffsets());
+        assertArrayEquals(graph.followers().csrTargets(), contents.followers().csrTargets());
+        assertTrue(contents.following().contains(3, 6));
+        assertTrue(contents.followers().contains(1, 4));
+        assertFalse(contents.followers().contains(4, 1));
+    }
+
+    @Test
+    void roundTripsAnEmptyGraph() throws IOException {
+        Adjacency empty = Adjacency.empty();
+        Path path = dir.resolve("empty.bin");
+
+        FollowGraphSnapshotFile.write(path, empty, empty, WATERMARK);
+        FollowGraphSnapshotFile.Contents contents = FollowGraphSnapshotFile.read(path);
+
+        assertEquals(0, contents.following().vertexCapacity());
+        assertEquals(0, contents.followers().csrTargets().length);
+    }
+
+    @Test
+    void replacesAnExistingSnapshotWithoutLeavingTempFiles() throws IOException {
+        Path path = written();
+        FollowGraph.Frozen smaller = TestGraphs.of(3, 1, 2);
+
+        FollowGraphSnapshotFile.write(path, smaller.following(), smaller.followers(), WATERMARK.plusHours(1));
+
+        FollowGraphSnapshotFile.Contents contents = FollowGraphSnapshotFile.read(path);
+        assertEquals(WATERMARK.plusHours(1), contents.watermark());
+        assertArrayEquals(new int[]{2}, contents.following().csrTargets());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void rejectsDirectionsThatDisagree() {
+        FollowGraph.Frozen graph = graph();
+        FollowGraph.Frozen other = TestGraphs.of(7, 1, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> FollowGraphSnapshotFile.write(
+                dir.resolve("mismatch.bin"), graph.following(), other.followers(), WATERMARK));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path path = written();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Integer.BYTES);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> FollowGraphSnapshotFile.read(path));
+        assertTrue(e.getMessage().startsWith("Truncated"), e.getMessage());
+    }
+
+    @Test
+    void rejectsFileShorterThanHeader() throws IOException {
+        Path path = dir.resolve("short.bin");
+        Files.write(path, new byte[10]);
+
+        IOException e = assertThrows(IOException.class, () -> FollowGraphSnapshotFile.read(path));
+        assertTrue(e.getMessage().startsWith("Not a follow graph snapshot"), e.getMessage());
+    }
+
+    @Test
+    void rejectsBadMagic() throws IOException {
+        Path path = written();
+        overwriteInt(path, 0, 0x12345678);
+
+        IOException e = assertThrows(IOException.class, () -> FollowGraphSnapshotFile.read(path));
+        assertTrue(e.getMessage().startsWith("Unsupported"), e.getMessage());
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() throws IOException {
+        Path path = written();
+        overwriteInt(path, Integer.BYTES, 99);
+
+        assertThrows(IOException.class, () -> FollowGraphSnapshotFile.read(path));
+    }
+
+    @Test
+    void rejectsOffsetsThatAreNotMonotonic() throws IOException {
+        Path path = written();
+        // Header, then following offsets; the offset of vertex 2 is set past the edge count
+        overwriteInt(path, 24 + 2 * Integer.BYTES, 1000);
+
+        IOException e = assertThrows(IOException.class, () -> FollowGraphSnapshotFile.read(path));
+        assertTrue(e.getMessage().startsWith("Corrupt"), e.getMessage());
+    }
+
+    private static void overwriteInt(Path path, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, value), position);
+        }
+    }
+}
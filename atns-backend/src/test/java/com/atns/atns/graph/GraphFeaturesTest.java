@@ -0,0 +1,81 @@
+package com.atns.atns.graph;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphFeaturesTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void countsTrianglesAndClusteringIgnoringDirection() {
+        // Triangle 1 -> 2 -> 3 -> 1 with 1 <-> 3 mutual, and 4 hanging off 3
+        GraphFeatures features = GraphFeatures.compute(TestGraphs.of(5, 1, 2, 2, 3, 3, 1, 1, 3, 3, 4), POOL);
+
+        assertEquals(1, features.triangles(1));
+        assertEquals(1, features.triangles(2));
+        assertEquals(1, features.triangles(3));
+        assertEquals(0, features.triangles(4));
+
+        assertEquals(1.0, features.clusteringCoefficient(1), 1e-12);
+        assertEquals(1.0, features.clusteringCoefficient(2), 1e-12);
+        assertEquals(1.0 / 3, features.clusteringCoefficient(3), 1e-12);
+        assertEquals(0.0, features.clusteringCoefficient(4), 1e-12);
+    }
+
+    @Test
+    void countsDegreesAndReciprocity() {
+        GraphFeatures features = GraphFeatures.compute(TestGraphs.of(5, 1, 2, 2, 3, 3, 1, 1, 3, 3, 4), POOL);
+
+        assertEquals(2, features.outDegree(3));
+        assertEquals(2, features.inDegree(3));
+        assertEquals(1, features.mutualDegree(3));
+        assertEquals(3, features.neighbourCount(3));
+        assertEquals(0.5, features.reciprocity(3), 1e-12);
+
+        assertEquals(0, features.outDegree(4));
+        assertEquals(1, features.inDegree(4));
+        assertEquals(0.0, features.reciprocity(4), 1e-12);
+    }
+
+    @Test
+    void everyVertexOfACliqueIsFullyClustered() {
+        // Undirected K4 on 1..4, each pair followed in one direction only
+        GraphFeatures features = GraphFeatures.compute(
+                TestGraphs.of(5, 1, 2, 1, 3, 1, 4, 2, 3, 2, 4, 3, 4), POOL);
+
+        for (int v = 1; v <= 4; v++) {
+            assertEquals(3, features.neighbourCount(v));
+            assertEquals(3, features.triangles(v));
+            assertEquals(1.0, features.clusteringCoefficient(v), 1e-12);
+        }
+    }
+
+    @Test
+    void starHasNoTriangles() {
+        GraphFeatures features = GraphFeatures.compute(TestGraphs.of(6, 1, 2, 1, 3, 4, 1, 5, 1), POOL);
+
+        assertEquals(4, features.neighbourCount(1));
+        assertEquals(0, features.triangles(1));
+        assertEquals(0.0, features.clusteringCoefficient(1), 1e-12);
+    }
+
+    @Test
+    void unknownVerticesReadAsZero() {
+        GraphFeatures features = GraphFeatures.compute(TestGraphs.of(3, 1, 2), POOL);
+
+        assertEquals(3, features.vertexCapacity());
+        assertEquals(0, features.triangles(-1));
+        assertEquals(0, features.inDegree(3));
+        assertEquals(0.0, features.clusteringCoefficient(100), 1e-12);
+    }
+}
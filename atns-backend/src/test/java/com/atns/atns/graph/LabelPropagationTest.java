@@ -0,0 +1,97 @@
+package com.atns.atns.graph;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LabelPropagationTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void tieTakesTheSmallestLabel() {
+        // 4 sees labels 1 and 3 once each and its own not at all
+        FollowGraph.Frozen graph = TestGraphs.of(5, 4, 1, 4, 3);
+
+        LabelPropagation.Result result = compute(graph, 10);
+
+        assertTrue(result.converged());
+        assertEquals(1, result.labels()[1]);
+        assertEquals(1, result.labels()[3]);
+        assertEquals(1, result.labels()[4]);
+    }
+
+    @Test
+    void tieKeepsTheCurrentLabel() {
+        // Path 1 - 2 - 5 - 6: 5 ends up seeing its own label and the smaller 1 once each
+        FollowGraph.Frozen graph = TestGraphs.of(7, 1, 2, 2, 5, 5, 6);
+
+        LabelPropagation.Result result = compute(graph, 10);
+
+        assertTrue(result.converged());
+        assertArrayEquals(new int[]{1, 1, 5, 5}, new int[]{
+                result.labels()[1], result.labels()[2], result.labels()[5], result.labels()[6]});
+    }
+
+    @Test
+    void twoColouredGraphDoesNotOscillate() {
+        // Complete bipartite between the even {2, 4} and the odd {1, 3}: synchronous updates swap forever
+        FollowGraph.Frozen graph = TestGraphs.of(5, 2, 1, 2, 3, 4, 1, 4, 3);
+
+        LabelPropagation.Result result = compute(graph, 50);
+
+        assertTrue(result.converged());
+        assertTrue(result.rounds() <= 2, "rounds: " + result.rounds());
+        for (int v = 1; v <= 4; v++) {
+            assertEquals(1, result.labels()[v]);
+        }
+    }
+
+    @Test
+    void isolatedVerticesKeepTheirOwnLabel() {
+        LabelPropagation.Result result = compute(TestGraphs.of(4, 1, 2), 10);
+
+        assertEquals(0, result.labels()[0]);
+        assertEquals(3, result.labels()[3]);
+    }
+
+    @Test
+    void labelsDoNotDependOnParallelism() {
+        // Large enough to be split into several tasks
+        Random random = new Random(42);
+        int n = 40_000;
+        int[] edges = new int[2 * 4 * n];
+        for (int i = 0; i < edges.length; i += 2) {
+            int source = random.nextInt(n);
+            int block = source / 100 * 100;
+            edges[i] = source;
+            int target = random.nextInt(10) == 0 ? random.nextInt(n) : block + random.nextInt(100);
+            edges[i + 1] = target != source ? target : (source + 1) % n;
+        }
+        FollowGraph.Frozen graph = TestGraphs.of(n, edges);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            LabelPropagation.Result sequential = LabelPropagation.compute(graph.following(), graph.followers(), single, 20);
+            LabelPropagation.Result parallel = compute(graph, 20);
+
+            assertArrayEquals(sequential.labels(), parallel.labels());
+            assertEquals(sequential.rounds(), parallel.rounds());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    private static LabelPropagation.Result compute(FollowGraph.Frozen graph, int maxRounds) {
+        return LabelPropagation.compute(graph.following(), graph.followers(), POOL, maxRounds);
+    }
+}
@@ -0,0 +1,90 @@
+package com.atns.atns.graph;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageRankTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final double DAMPING = 0.85;
+    private static final double TOLERANCE = 1e-10;
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void danglingVerticesDoNotLeakRank() {
+        // 3 and 4 follow no one, and 0 is an unused id
+        FollowGraph.Frozen graph = TestGraphs.of(5, 1, 2, 1, 3, 2, 3, 2, 4);
+
+        PageRank.Result result = compute(graph, 200);
+
+        assertTrue(result.converged());
+        assertEquals(1.0, Arrays.stream(result.ranks()).sum(), 1e-9);
+        assertTrue(result.ranks()[3] > result.ranks()[2], "followed twice beats followed once");
+        assertTrue(result.ranks()[2] > result.ranks()[1], "followed once beats not followed");
+        assertEquals(result.ranks()[0], result.ranks()[1], 1e-9, "unused id gets the same share as an unfollowed one");
+    }
+
+    @Test
+    void massIsConservedEveryIteration() {
+        Random random = new Random(5);
+        int n = 30_000;
+        int[] edges = new int[2 * 3 * n];
+        for (int i = 0; i < edges.length; i += 2) {
+            // A third of the vertices never follow anyone
+            edges[i] = random.nextInt(2 * n / 3);
+            edges[i + 1] = random.nextInt(n);
+        }
+        FollowGraph.Frozen graph = TestGraphs.of(n, edges);
+
+        for (int iterations = 1; iterations <= 5; iterations++) {
+            PageRank.Result result = compute(graph, iterations);
+
+            assertEquals(iterations, result.iterations());
+            assertEquals(1.0, Arrays.stream(result.ranks()).sum(), 1e-9, "after " + iterations + " iterations");
+        }
+    }
+
+    @Test
+    void cycleRanksEveryVertexEqually() {
+        PageRank.Result result = compute(TestGraphs.of(4, 0, 1, 1, 2, 2, 3, 3, 0), 100);
+
+        assertTrue(result.converged());
+        for (double rank : result.ranks()) {
+            assertEquals(0.25, rank, 1e-9);
+        }
+    }
+
+    @Test
+    void graphWithoutEdgesIsUniform() {
+        PageRank.Result result = compute(TestGraphs.of(8), 100);
+
+        assertTrue(result.converged());
+        for (double rank : result.ranks()) {
+            assertEquals(1.0 / 8, rank, 1e-12);
+        }
+    }
+
+    @Test
+    void emptyGraphConvergesImmediately() {
+        PageRank.Result result = compute(TestGraphs.of(0), 100);
+
+        assertTrue(result.converged());
+        assertEquals(0, result.ranks().length);
+        assertEquals(0, result.iterations());
+    }
+
+    private static PageRank.Result compute(FollowGraph.Frozen graph, int maxIterations) {
+        return PageRank.compute(graph.following(), graph.followers(), POOL, DAMPING, TOLERANCE, maxIterations,
+                (iteration, residual, nanos) -> { });
+    }
+}
@@ -0,0 +1,106 @@
+package com.atns.atns.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedIntArraysTest {
+
+    private static final int[] EMPTY = new int[0];
+
+    @Test
+    void lowerBoundAndGallopFindTheFirstNotSmallerIndex() {
+        int[] array = {2, 4, 6, 8, 10, 12, 14, 16, 18};
+
+        for (int key = 0; key <= 20; key++) {
+            int bound = key;
+            int expected = (int) Arrays.stream(array).filter(value -> value < bound).count();
+            assertEquals(expected, SortedIntArrays.lowerBound(array, 0, array.length, key), "lowerBound " + key);
+            assertEquals(expected, SortedIntArrays.gallop(array, 0, array.length, key), "gallop " + key);
+        }
+    }
+
+    @Test
+    void gallopStaysInsideItsRange() {
+        int[] array = {1, 3, 5, 7, 9, 11};
+
+        assertEquals(2, SortedIntArrays.gallop(array, 2, 4, 0));
+        assertEquals(4, SortedIntArrays.gallop(array, 2, 4, 100));
+        assertEquals(3, SortedIntArrays.gallop(array, 2, 4, 7));
+        assertEquals(3, SortedIntArrays.gallop(array, 3, 3, 1));
+    }
+
+    @Test
+    void emptyRangesIntersectToNothing() {
+        int[] values = {1, 2, 3};
+
+        assertEquals(0, SortedIntArrays.intersectionSize(EMPTY, 0, 0, values, 0, 3));
+        assertEquals(0, SortedIntArrays.intersectionSize(values, 0, 3, EMPTY, 0, 0));
+        assertEquals(0, SortedIntArrays.intersectionSize(values, 1, 1, values, 0, 3));
+    }
+
+    @Test
+    void disjointAndIdenticalRanges() {
+        int[] odd = {1, 3, 5, 7};
+        int[] even = {2, 4, 6, 8};
+
+        assertEquals(0, SortedIntArrays.intersectionSize(odd, 0, 4, even, 0, 4));
+        assertEquals(4, SortedIntArrays.intersectionSize(odd, 0, 4, odd, 0, 4));
+    }
+
+    @Test
+    void gallopsToMatchesAtBothEndsOfALongRange() {
+        int[] longRange = new int[10_000];
+        for (int i = 0; i < longRange.length; i++) {
+            longRange[i] = 2 * i;
+        }
+        int[] ends = {0, 19_998};
+        int[] beyond = {-2, 20_000};
+
+        assertEquals(2, SortedIntArrays.intersectionSize(ends, 0, 2, longRange, 0, longRange.length));
+        assertEquals(2, SortedIntArrays.intersectionSize(longRange, 0, longRange.length, ends, 0, 2));
+        assertEquals(0, SortedIntArrays.intersectionSize(beyond, 0, 2, longRange, 0, longRange.length));
+    }
+
+    @Test
+    void respectsSubrangeOffsets() {
+        // Rows of a CSR array: [1, 5, 9] and [5, 9, 12]
+        int[] targets = {1, 5, 9, 5, 9, 12};
+
+        assertEquals(2, SortedIntArrays.intersectionSize(targets, 0, 3, targets, 3, 6));
+        assertEquals(1, SortedIntArrays.intersectionSize(targets, 2, 3, targets, 3, 6));
+        assertEquals(0, SortedIntArrays.intersectionSize(targets, 0, 1, targets, 3, 6));
+    }
+
+    @Test
+    void intersectCopiesAtMostMaxOutButCountsAll() {
+        int[] a = {1, 2, 3, 4, 5, 6};
+        int[] b = {2, 4, 6, 8};
+        int[] out = new int[8];
+
+        assertEquals(3, SortedIntArrays.intersect(a, 0, a.length, b, 0, b.length, out, 2));
+        assertArrayEquals(new int[]{2, 4}, Arrays.copyOf(out, 2));
+        assertEquals(0, out[2]);
+
+        int[] small = new int[1];
+        assertEquals(3, SortedIntArrays.intersect(a, 0, a.length, b, 0, b.length, small, 10));
+        assertEquals(2, small[0]);
+    }
+
+    @Test
+    void matchesANaiveIntersection() {
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            int[] a = random.ints(random.nextInt(40), 0, 200).sorted().distinct().toArray();
+            int[] b = random.ints(random.nextInt(2000), 0, 200_000 / (1 + random.nextInt(1000)))
+                    .sorted().distinct().toArray();
+            int expected = (int) Arrays.stream(a).filter(value -> Arrays.binarySearch(b, value) >= 0).count();
+
+            assertEquals(expected, SortedIntArrays.intersectionSize(a, 0, a.length, b, 0, b.length));
+            assertEquals(expected, SortedIntArrays.intersectionSize(b, 0, b.length, a, 0, a.length));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.atns.atns.graph;
+
+/**
+ * Small follow graphs for graph algorithm tests.
+ */
+final class TestGraphs {
+
+    private TestGraphs() {
+        throw new AssertionError("Cannot be instantiate utility class");
+    }
+
+    /**
+     * @param edges {@code follower, followed} pairs
+     */
+    static FollowGraph.Frozen of(int vertexCapacity, int... edges) {
+        int edgeCount = edges.length / 2;
+        int[] sources = new int[edgeCount];
+        int[] destinations = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            sources[i] = edges[2 * i];
+            destinations[i] = edges[2 * i + 1];
+        }
+        return new FollowGraph.Frozen(Adjacency.build(vertexCapacity, sources, destinations, edgeCount),
+                Adjacency.build(vertexCapacity, destinations, sources, edgeCount), 0);
+    }
+}
@@ -0,0 +1,104 @@
+package com.atns.atns.recommendation.impl;
+
+import com.atns.atns.recommendation.index.ProfileVector;
+import com.atns.atns.recommendation.index.SkillVectorIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MutualCandidateRankerTest {
+
+    private static final ProfileVector SELF = new ProfileVector(1, new int[]{1, 2}, 0, 2020);
+
+    private final SkillVectorIndex index = mock(SkillVectorIndex.class);
+
+    @Test
+    void moreCommonNeighboursRankHigher() {
+        indexLikeSelf(2, 3, 4);
+        MutualCandidateRanker ranker = ranker(3, id -> false);
+
+        ranker.accept(2, 1);
+        ranker.accept(3, 5);
+        ranker.accept(4, 2);
+
+        assertEquals(List.of(3, 4, 2), ids(ranker.result()));
+    }
+
+    @Test
+    void sameClusterAddsABoundedBonus() {
+        indexLikeSelf(2, 3);
+        MutualCandidateRanker ranker = ranker(2, id -> id == 3);
+
+        ranker.accept(2, 2);
+        ranker.accept(3, 2);
+
+        List<ScoredProfile> result = ranker.result();
+        assertEquals(List.of(3, 2), ids(result));
+        assertEquals(0.1, result.get(0).score() - result.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void clusterBonusDoesNotOutweighAClearlyStrongerMutualCount() {
+        indexLikeSelf(2, 3);
+        MutualCandidateRanker ranker = ranker(2, id -> id == 3);
+
+        ranker.accept(2, 20);
+        ranker.accept(3, 1);
+
+        assertEquals(List.of(2, 3), ids(ranker.result()));
+    }
+
+    @Test
+    void skipsProfilesMissingFromTheIndex() {
+        indexLikeSelf(3);
+        MutualCandidateRanker ranker = ranker(5, id -> false);
+
+        ranker.accept(2, 10); // deleted or not indexed
+        ranker.accept(3, 1);
+
+        assertEquals(List.of(3), ids(ranker.result()));
+    }
+
+    @Test
+    void keepsOnlyTheBestLimitCandidates() {
+        indexLikeSelf(2, 3, 4, 5);
+        MutualCandidateRanker ranker = ranker(2, id -> false);
+
+        for (int id = 2; id <= 5; id++) {
+            ranker.accept(id, id);
+        }
+
+        assertEquals(List.of(5, 4), ids(ranker.result()));
+    }
+
+    @Test
+    void followingTheCallerCountsAsAConnection() {
+        indexLikeSelf(2, 3);
+        MutualCandidateRanker ranker = new MutualCandidateRanker(index, SELF, 2, id -> id == 2, id -> false);
+
+        ranker.accept(2, 2);
+        ranker.accept(3, 2);
+
+        assertEquals(List.of(2, 3), ids(ranker.result()));
+    }
+
+    private MutualCandidateRanker ranker(int limit, IntPredicate sameCluster) {
+        return new MutualCandidateRanker(index, SELF, limit, id -> false, sameCluster);
+    }
+
+    private void indexLikeSelf(int... profileIds) {
+        for (int profileId : profileIds) {
+            when(index.find(profileId)).thenReturn(new ProfileVector(profileId, SELF.skills(), SELF.faculty(),
+                    SELF.batchYear()));
+        }
+    }
+
+    private static List<Integer> ids(List<ScoredProfile> result) {
+        return result.stream().map(scored -> scored.vector().profileId()).toList();
+    }
+}
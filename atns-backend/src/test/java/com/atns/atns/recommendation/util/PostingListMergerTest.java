@@ -0,0 +1,71 @@
+package com.atns.atns.recommendation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingListMergerTest {
+
+    @Test
+    void visitsEveryIdOnceInAscendingOrderWithItsCount() {
+        int[][] lists = {{1, 4, 7}, {4, 5, 7}, {7, 9}};
+
+        List<int[]> visits = merge(lists, 3);
+
+        assertEquals(List.of("1:1", "4:2", "5:1", "7:3", "9:1"), format(visits));
+    }
+
+    @Test
+    void onlyTheFirstListsAreCounted() {
+        // The last list contributes candidates, not matches
+        int[][] lists = {{2, 3}, {3}, {1, 2, 3}};
+
+        List<int[]> visits = merge(lists, 2);
+
+        assertEquals(List.of("1:0", "2:1", "3:2"), format(visits));
+    }
+
+    @Test
+    void ignoresNullAndEmptyLists() {
+        int[][] lists = {null, {}, {5}, null};
+
+        assertEquals(List.of("5:0"), format(merge(lists, 1)));
+        assertTrue(merge(new int[][]{null, {}}, 2).isEmpty());
+        assertTrue(merge(new int[0][], 0).isEmpty());
+    }
+
+    @Test
+    void matchesAMapBasedMerge() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int[][] lists = new int[random.nextInt(8)][];
+            int counted = lists.length == 0 ? 0 : random.nextInt(lists.length + 1);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = random.ints(random.nextInt(30), 0, 60).sorted().distinct().toArray();
+                for (int id : lists[i]) {
+                    expected.merge(id, i < counted ? 1 : 0, Integer::sum);
+                }
+            }
+
+            List<String> expectedVisits = new ArrayList<>();
+            expected.forEach((id, matches) -> expectedVisits.add(id + ":" + matches));
+            assertEquals(expectedVisits, format(merge(lists, counted)));
+        }
+    }
+
+    private static List<int[]> merge(int[][] lists, int countedLists) {
+        List<int[]> visits = new ArrayList<>();
+        PostingListMerger.merge(lists, countedLists, (id, matches) -> visits.add(new int[]{id, matches}));
+        return visits;
+    }
+
+    private static List<String> format(List<int[]> visits) {
+        return visits.stream().map(visit -> visit[0] + ":" + visit[1]).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.atns.atns.recommendation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void zeroCapacitySelectsNothing() {
+        TopKSelector top = new TopKSelector(0);
+
+        assertFalse(top.offer(1, 1.0));
+        assertEquals(0, top.size());
+        assertTrue(top.isFull());
+        assertEquals(Double.NEGATIVE_INFINITY, top.threshold());
+    }
+
+    @Test
+    void negativeCapacityIsTreatedAsZero() {
+        TopKSelector top = new TopKSelector(-3);
+
+        assertFalse(top.offer(1, 1.0));
+        assertEquals(0, top.size());
+    }
+
+    @Test
+    void thresholdIsTheKthBestOnceFull() {
+        TopKSelector top = new TopKSelector(3);
+
+        top.offer(1, 0.5);
+        top.offer(2, 0.9);
+        assertEquals(Double.NEGATIVE_INFINITY, top.threshold());
+
+        top.offer(3, 0.1);
+        assertEquals(0.1, top.threshold());
+
+        assertTrue(top.offer(4, 0.7));
+        assertEquals(0.5, top.threshold());
+        assertFalse(top.offer(5, 0.2));
+        assertEquals(3, top.size());
+    }
+
+    @Test
+    void singleSlotKeepsTheBest() {
+        TopKSelector top = new TopKSelector(1);
+        top.offer(3, 0.2);
+        top.offer(1, 0.8);
+        top.offer(2, 0.5);
+
+        top.sortDescending();
+
+        assertEquals(1, top.size());
+        assertEquals(1, top.id(0));
+        assertEquals(0.8, top.score(0));
+    }
+
+    @Test
+    void sortsBestFirstWithSmallerIdWinningTies() {
+        TopKSelector top = new TopKSelector(4);
+        top.offer(7, 0.5);
+        top.offer(3, 0.5);
+        top.offer(9, 0.9);
+        top.offer(5, 0.5);
+        top.offer(1, 0.1);
+        top.offer(4, 0.5);
+
+        top.sortDescending();
+
+        assertArrayEquals(new int[]{9, 3, 4, 5}, IntStream.range(0, top.size()).map(top::id).toArray());
+    }
+
+    @Test
+    void equalScoreWithLargerIdDoesNotDisplaceTheThreshold() {
+        TopKSelector top = new TopKSelector(2);
+        top.offer(1, 0.5);
+        top.offer(2, 0.5);
+
+        assertFalse(top.offer(3, 0.5));
+        assertTrue(top.offer(0, 0.5));
+
+        top.sortDescending();
+        assertArrayEquals(new int[]{0, 1}, new int[]{top.id(0), top.id(1)});
+    }
+
+    @Test
+    void offerAfterSortingFails() {
+        TopKSelector top = new TopKSelector(2);
+        top.offer(1, 0.5);
+        top.sortDescending();
+
+        assertThrows(IllegalStateException.class, () -> top.offer(2, 0.9));
+    }
+
+    @Test
+    void mergedChunksMatchASingleSelection() {
+        Random random = new Random(3);
+        int n = 1000;
+        int k = 10;
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = random.nextInt(50) / 50.0; // plenty of ties
+        }
+
+        TopKSelector whole = new TopKSelector(k);
+        TopKSelector merged = new TopKSelector(k);
+        for (int from = 0; from < n; from += 128) {
+            TopKSelector chunk = new TopKSelector(k);
+            for (int i = from; i < Math.min(n, from + 128); i++) {
+                whole.offer(i, scores[i]);
+                chunk.offer(i, scores[i]);
+            }
+            merged.offerAll(chunk);
+        }
+        whole.sortDescending();
+        merged.sortDescending();
+
+        int[] expected = IntStream.range(0, n).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingInt(i -> i))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] wholeIds = IntStream.range(0, k).map(whole::id).toArray();
+        int[] mergedIds = IntStream.range(0, k).map(merged::id).toArray();
+        assertArrayEquals(expected, wholeIds, Arrays.toString(wholeIds));
+        assertArrayEquals(expected, mergedIds, Arrays.toString(mergedIds));
+    }
+}